@@ -0,0 +1,65 @@
+package org.example;
+
+import org.example.bench.TaskDataSet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+// Cost of TaskDaoImpl.mapTask on top of stepping the cursor. In org.example (not .bench)
+// to reach the package-private mapper; the benchmarks run from the class path.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RowMappingBenchmark {
+
+    private static final String SELECT_SQL = "SELECT " + TaskDaoImpl.TASK_COLUMNS + " FROM tasks";
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private Path dbFile;
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dbFile = TaskDataSet.create(rows);
+        connection = DriverManager.getConnection("jdbc:sqlite:" + dbFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        connection.close();
+        TaskDataSet.delete(dbFile);
+    }
+
+    // Baseline: step through the rows reading only the id
+    @Benchmark
+    public void scanOnly(Blackhole blackhole) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_SQL)) {
+            while (rs.next()) {
+                blackhole.consume(rs.getInt(1));
+            }
+        }
+    }
+
+    @Benchmark
+    public void mapTask(Blackhole blackhole) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_SQL)) {
+            while (rs.next()) {
+                blackhole.consume(TaskDaoImpl.mapTask(rs));
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test for TaskApiServer: N virtual-thread clients share one keep-alive
+ * HttpClient and run a read-heavy mix (page reads, conditional single-task reads,
+ * searches, inserts) for a fixed time, then print throughput and latency
+ * percentiles. Start the server first, then:
+ * <pre>
+ *   java -cp target/benchmarks.jar org.example.bench.ApiLoadTest [baseUrl] [clients] [seconds]
+ * </pre>
+ * Defaults: http://localhost:8080, 64 clients, 30 seconds.
+ */
+public class ApiLoadTest {
+
+    private static final String[] WORDS = {"laundry", "dishes", "vacuum", "garden", "groceries", "windows", "garage", "bills"};
+    // Latencies are bucketed in 10 microsecond steps up to 10 seconds
+    private static final int BUCKET_MICROS = 10;
+    private static final int BUCKETS = 1_000_000;
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        AtomicIntegerArray histogram = new AtomicIntegerArray(BUCKETS);
+        LongAdder requests = new LongAdder();
+        LongAdder notModified = new LongAdder();
+        LongAdder errors = new LongAdder();
+        // ETag last seen per task, sent back as If-None-Match
+        ConcurrentHashMap<Integer, String> eTags = new ConcurrentHashMap<>();
+        AtomicInteger maxId = new AtomicInteger(1);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                long seed = c;
+                executor.submit(() -> {
+                    Random random = new Random(seed);
+                    while (System.nanoTime() < deadline) {
+                        int roll = random.nextInt(100);
+                        HttpRequest.Builder request;
+                        int taskId = 0;
+                        if (roll < 40) {
+                            request = HttpRequest.newBuilder(URI.create(baseUrl + "/tasks?limit=50"));
+                        } else if (roll < 80) {
+                            taskId = 1 + random.nextInt(maxId.get());
+                            request = HttpRequest.newBuilder(URI.create(baseUrl + "/tasks/" + taskId));
+                            String eTag = eTags.get(taskId);
+                            if (eTag != null) {
+                                request.header("If-None-Match", eTag);
+                            }
+                        } else if (roll < 95) {
+                            request = HttpRequest.newBuilder(URI.create(baseUrl + "/tasks/search?q="
+                                    + WORDS[random.nextInt(WORDS.length)]));
+                        } else {
+                            String body = "{\"task_name\": \"Load test " + WORDS[random.nextInt(WORDS.length)]
+                                    + "\", \"category\": \"Load\", \"completed\": false}";
+                            request = HttpRequest.newBuilder(URI.create(baseUrl + "/tasks"))
+                                    .header("Content-Type", "application/json")
+                                    .POST(HttpRequest.BodyPublishers.ofString(body));
+                        }
+
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+                            long micros = (System.nanoTime() - start) / 1000;
+                            histogram.incrementAndGet((int) Math.min(BUCKETS - 1, micros / BUCKET_MICROS));
+                            requests.increment();
+                            int status = response.statusCode();
+                            if (status == 304) {
+                                notModified.increment();
+                            } else if (status >= 400 && status != 404) {
+                                errors.increment();
+                            }
+                            if (taskId > 0 && status == 200) {
+                                int id = taskId;
+                                response.headers().firstValue("ETag").ifPresent(tag -> eTags.put(id, tag));
+                            }
+                            if (status == 201) {
+                                response.headers().firstValue("Location").ifPresent(location -> maxId.accumulateAndGet(
+                                        Integer.parseInt(location.substring(location.lastIndexOf('/') + 1)), Math::max));
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+
+        long total = requests.sum();
+        System.out.printf("%d requests in %ds with %d clients: %.0f req/s, %d not modified, %d errors%n",
+                total, seconds, clients, (double) total / seconds, notModified.sum(), errors.sum());
+        System.out.printf("latency p50=%.2fms p95=%.2fms p99=%.2fms p99.9=%.2fms%n",
+                percentile(histogram, total, 0.50), percentile(histogram, total, 0.95),
+                percentile(histogram, total, 0.99), percentile(histogram, total, 0.999));
+    }
+
+    private static double percentile(AtomicIntegerArray histogram, long total, double fraction) {
+        long target = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int i = 0; i < histogram.length(); i++) {
+            seen += histogram.get(i);
+            if (seen >= target && target > 0) {
+                return (i + 1) * BUCKET_MICROS / 1000.0;
+            }
+        }
+        return 0.0;
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.bench;
+
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runs the suites and keeps the results as a sorted, tab-separated file (one line
+ * per benchmark and parameter set), so two releases can be compared with diff or
+ * with the compare command, which flags every score that got worse by more than
+ * the threshold (default 10%) and exits with status 1 if any did:
+ * <pre>
+ *   java -cp target/benchmarks.jar org.example.bench.BenchmarkReport run results/1.1.tsv [include-regex]
+ *   java -cp target/benchmarks.jar org.example.bench.BenchmarkReport compare results/1.0.tsv results/1.1.tsv [threshold%]
+ * </pre>
+ */
+public class BenchmarkReport {
+
+    private static final String HEADER = "benchmark\tparams\tmode\tscore\terror\tunit";
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        if (args.length >= 2 && args[0].equals("run")) {
+            run(Path.of(args[1]), args.length > 2 ? args[2] : "org.example");
+        } else if (args.length >= 3 && args[0].equals("compare")) {
+            double threshold = args.length > 3 ? Double.parseDouble(args[3]) : 10.0;
+            if (compare(Path.of(args[1]), Path.of(args[2]), threshold) > 0) {
+                System.exit(1);
+            }
+        } else {
+            System.err.println("Usage: BenchmarkReport run <report.tsv> [include-regex]");
+            System.err.println("       BenchmarkReport compare <old.tsv> <new.tsv> [threshold%]");
+            System.exit(2);
+        }
+    }
+
+    private static void run(Path report, String include) throws IOException, RunnerException {
+        Collection<RunResult> results = new Runner(new OptionsBuilder().include(include).build()).run();
+        List<String> lines = new ArrayList<>();
+        for (RunResult result : results) {
+            Result<?> primary = result.getPrimaryResult();
+            StringBuilder params = new StringBuilder();
+            for (String key : result.getParams().getParamsKeys()) {
+                if (params.length() > 0) {
+                    params.append(',');
+                }
+                params.append(key).append('=').append(result.getParams().getParam(key));
+            }
+            lines.add(String.format(Locale.ROOT, "%s\t%s\t%s\t%.3f\t%.3f\t%s", result.getParams().getBenchmark(),
+                    params.length() > 0 ? params : "-", result.getParams().getMode().shortLabel(),
+                    primary.getScore(), primary.getScoreError(), primary.getScoreUnit()));
+        }
+        lines.sort(null);
+        lines.add(0, HEADER);
+        if (report.getParent() != null) {
+            Files.createDirectories(report.getParent());
+        }
+        Files.write(report, lines, StandardCharsets.UTF_8);
+        System.out.println("Wrote " + (lines.size() - 1) + " result(s) to " + report + ".");
+    }
+
+    // Prints the change of every result present in both reports; returns the number of regressions
+    private static int compare(Path oldReport, Path newReport, double thresholdPercent) throws IOException {
+        Map<String, String[]> before = read(oldReport);
+        Map<String, String[]> after = read(newReport);
+        int regressions = 0;
+        for (Map.Entry<String, String[]> entry : after.entrySet()) {
+            String[] previous = before.get(entry.getKey());
+            if (previous == null) {
+                System.out.println("new       " + entry.getKey());
+                continue;
+            }
+            double oldScore = Double.parseDouble(previous[3]);
+            double newScore = Double.parseDouble(entry.getValue()[3]);
+            double change = oldScore == 0 ? 0 : (newScore - oldScore) / oldScore * 100;
+            // Throughput modes score higher-is-better, time modes lower-is-better
+            boolean higherIsBetter = entry.getValue()[2].equals("thrpt");
+            double worse = higherIsBetter ? -change : change;
+            String verdict = worse > thresholdPercent ? "REGRESSED" : worse < -thresholdPercent ? "improved" : "same";
+            if (worse > thresholdPercent) {
+                regressions++;
+            }
+            System.out.printf(Locale.ROOT, "%-9s %s: %.3f -> %.3f %s (%+.1f%%)%n", verdict, entry.getKey(),
+                    oldScore, newScore, entry.getValue()[5], change);
+        }
+        for (String key : before.keySet()) {
+            if (!after.containsKey(key)) {
+                System.out.println("removed   " + key);
+            }
+        }
+        System.out.println(regressions + " regression(s) above " + thresholdPercent + "%.");
+        return regressions;
+    }
+
+    // Report lines keyed by benchmark, params and mode
+    private static Map<String, String[]> read(Path report) throws IOException {
+        Map<String, String[]> rows = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(report, StandardCharsets.UTF_8)) {
+            if (line.isEmpty() || line.equals(HEADER)) {
+                continue;
+            }
+            String[] fields = line.split("\t");
+            if (fields.length != 6) {
+                throw new IOException("Malformed report line in " + report + ": " + line);
+            }
+            rows.put(fields[0] + " [" + fields[1] + "] " + fields[2], fields);
+        }
+        return rows;
+    }
+}
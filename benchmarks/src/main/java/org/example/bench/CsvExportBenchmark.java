@@ -0,0 +1,51 @@
+package org.example.bench;
+
+import org.example.CsvExporter;
+import org.example.DatabaseHelper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+// Whole-table CSV export (CsvExporter), plain and gzip-compressed
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvExportBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private Path dbFile;
+    private Path target;
+    private final CsvExporter exporter = new CsvExporter();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dbFile = TaskDataSet.create(rows);
+        TaskDataSet.useForDatabaseHelper(dbFile);
+        DatabaseHelper.initializeSchema();
+        target = Files.createTempFile("tasks-export-bench", gzip ? ".csv.gz" : ".csv");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        DatabaseHelper.shutdown();
+        TaskDataSet.delete(dbFile);
+        Files.deleteIfExists(target);
+    }
+
+    @Benchmark
+    public long export() throws IOException, SQLException, InterruptedException {
+        return exporter.export(target, gzip, null);
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.bench;
+
+import org.example.ConnectionPool;
+import org.example.SchemaMigrator;
+import org.example.TaskSearch;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// FTS5 search (TaskSearch) against the previous LIKE '%q%' scan, at growing table sizes
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+
+    private static final String[] WORDS = {
+            "laundry", "dishes", "vacuum", "garden", "groceries", "windows", "garage", "bathroom",
+            "kitchen", "recycling", "dog", "plants", "bills", "oven", "fridge", "curtains"
+    };
+    private static final String LIKE_SQL = "SELECT * FROM tasks WHERE task_name LIKE ? OR description LIKE ?";
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    // A selective term (a row number in the task name) and a broad prefix matching ~20% of rows
+    @Param({"99999", "vacu"})
+    public String query;
+
+    private Path dbFile;
+    private ConnectionPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dbFile = Files.createTempFile("tasks-search-bench", ".db");
+        pool = new ConnectionPool("jdbc:sqlite:" + dbFile, 2, 30000, 30000, 64);
+        Random random = new Random(42);
+        try (Connection connection = pool.getWriteConnection()) {
+            SchemaMigrator.migrate(connection);
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO tasks (task_name, category, description, completed) VALUES (?, 'Home', ?, 0)")) {
+                for (int i = 0; i < rows; i++) {
+                    insert.setString(1, "Clean " + WORDS[random.nextInt(WORDS.length)] + " " + i);
+                    insert.setString(2, "Remember the " + WORDS[random.nextInt(WORDS.length)]
+                            + " and the " + WORDS[random.nextInt(WORDS.length)] + " before the weekend");
+                    insert.addBatch();
+                    if (i % 1000 == 999) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+            connection.setAutoCommit(true);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        pool.close();
+        Files.deleteIfExists(dbFile);
+    }
+
+    @Benchmark
+    public int ftsSearch() throws SQLException {
+        try (Connection connection = pool.getReadConnection()) {
+            return TaskSearch.search(connection, query, TaskSearch.DEFAULT_LIMIT).size();
+        }
+    }
+
+    @Benchmark
+    public int likeSearch() throws SQLException {
+        int found = 0;
+        try (Connection connection = pool.getReadConnection();
+             PreparedStatement statement = connection.prepareStatement(LIKE_SQL)) {
+            statement.setString(1, "%" + query + "%");
+            statement.setString(2, "%" + query + "%");
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+}
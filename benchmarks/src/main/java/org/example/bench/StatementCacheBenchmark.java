@@ -0,0 +1,87 @@
+package org.example.bench;
+
+import org.example.ConnectionPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Per-operation latency of the task SQL with the statement cache off (0) and on (64)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatementCacheBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"0", "64"})
+    public int statementCacheSize;
+
+    private Path dbFile;
+    private ConnectionPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dbFile = Files.createTempFile("tasks-bench", ".db");
+        pool = new ConnectionPool("jdbc:sqlite:" + dbFile, 2, 5000, 30000, statementCacheSize);
+        try (Connection connection = pool.getWriteConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE tasks (id INTEGER PRIMARY KEY AUTOINCREMENT, task_name TEXT NOT NULL, "
+                    + "category TEXT, description TEXT, completed BOOLEAN, created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, deadline TIMESTAMP)");
+            stmt.executeUpdate("WITH RECURSIVE n(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < " + ROWS + ") "
+                    + "INSERT INTO tasks (task_name, category, description, completed) SELECT 'Task ' || i, 'Home', 'Description ' || i, 0 FROM n");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        pool.close();
+        Files.deleteIfExists(dbFile);
+    }
+
+    @Benchmark
+    public String selectById() throws SQLException {
+        try (Connection connection = pool.getReadConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT * FROM tasks WHERE id = ?")) {
+            statement.setInt(1, ThreadLocalRandom.current().nextInt(1, ROWS + 1));
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getString("task_name") : null;
+            }
+        }
+    }
+
+    @Benchmark
+    public int markCompleted() throws SQLException {
+        try (Connection connection = pool.getWriteConnection();
+             PreparedStatement statement = connection.prepareStatement("UPDATE tasks SET completed = TRUE WHERE id = ?")) {
+            statement.setInt(1, ThreadLocalRandom.current().nextInt(1, ROWS + 1));
+            return statement.executeUpdate();
+        }
+    }
+
+    @Benchmark
+    public int updateTask() throws SQLException {
+        try (Connection connection = pool.getWriteConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "UPDATE tasks SET task_name = ?, category = ?, description = ?, completed = ?, deadline = ? WHERE id = ?")) {
+            statement.setString(1, "Updated");
+            statement.setString(2, "Home");
+            statement.setString(3, "Updated description");
+            statement.setBoolean(4, false);
+            statement.setNull(5, Types.TIMESTAMP);
+            statement.setInt(6, ThreadLocalRandom.current().nextInt(1, ROWS + 1));
+            return statement.executeUpdate();
+        }
+    }
+}
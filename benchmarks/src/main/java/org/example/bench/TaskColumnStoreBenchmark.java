@@ -0,0 +1,114 @@
+package org.example.bench;
+
+import org.example.DatabaseHelper;
+import org.example.Task;
+import org.example.TaskDao;
+import org.example.TaskDaoImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// The task table's backing list: Task objects as TaskDao.getAllTasks returns them ("objects") against
+// TaskColumnStore's columns behind its list of row views ("columns"). load also reports the heap one
+// loaded table keeps (secondary result retainedBytes); scroll reads a screenful of rows the way the
+// table's cells do.
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskColumnStoreBenchmark {
+
+    // Rows the table shows at once
+    private static final int VISIBLE_ROWS = 40;
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    @Param({"objects", "columns"})
+    public String layout;
+
+    private Path dbFile;
+    private TaskDao dao;
+    private List<Task> table;
+
+    // Used heap after full GCs with the loaded table reachable, minus the same before the load.
+    // Approximate: System.gc() is a request, so compare runs with the same collector and heap size.
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Heap {
+        public long retainedBytes;
+        private long usedBefore;
+        private List<Task> loaded;
+
+        @Setup(Level.Invocation)
+        public void measureBefore() {
+            loaded = null;
+            usedBefore = usedHeapAfterGc();
+        }
+
+        @TearDown(Level.Invocation)
+        public void measureAfter() {
+            retainedBytes = usedHeapAfterGc() - usedBefore;
+            loaded = null;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dbFile = TaskDataSet.create(rows);
+        TaskDataSet.useForDatabaseHelper(dbFile);
+        DatabaseHelper.initializeSchema();
+        dao = new TaskDaoImpl();
+        table = load();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        DatabaseHelper.shutdown();
+        TaskDataSet.delete(dbFile);
+    }
+
+    // Whole table into memory, as TaskController.loadTasks does
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public int load(Heap heap) throws SQLException {
+        heap.loaded = load();
+        return heap.loaded.size();
+    }
+
+    // One screenful at a random position: every shown column of every visible row
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public void scroll(Blackhole blackhole) {
+        int first = ThreadLocalRandom.current().nextInt(table.size() - VISIBLE_ROWS);
+        for (int i = first; i < first + VISIBLE_ROWS; i++) {
+            Task task = table.get(i);
+            blackhole.consume(task.getTaskName());
+            blackhole.consume(task.getCategory());
+            blackhole.consume(task.getDescription());
+            blackhole.consume(task.getCreatedAt());
+            blackhole.consume(task.getDeadline());
+        }
+    }
+
+    private List<Task> load() throws SQLException {
+        return layout.equals("columns") ? dao.getAllTasksColumnar().asObservableList() : dao.getAllTasks();
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
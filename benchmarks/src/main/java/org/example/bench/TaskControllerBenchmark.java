@@ -0,0 +1,74 @@
+package org.example.bench;
+
+import javafx.collections.ObservableList;
+import org.example.DatabaseHelper;
+import org.example.Task;
+import org.example.TaskController;
+import org.example.TaskService;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// TaskController's read paths without a running JavaFX toolkit (list changes are applied inline)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskControllerBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    // "cold" empties the service's cache before each call, so getTaskById measures the DAO and
+    // SQLite path; "warm" lets the cache answer once it has seen the rows. loadTasks always reads
+    // the table into the controller's columns (TaskColumnStore), past the cache.
+    @Param({"cold", "warm"})
+    public String cache;
+
+    private Path dbFile;
+    private TaskService service;
+    private TaskController controller;
+    private boolean cold;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dbFile = TaskDataSet.create(rows);
+        TaskDataSet.useForDatabaseHelper(dbFile);
+        DatabaseHelper.initializeSchema();
+        service = new TaskService();
+        controller = new TaskController(service);
+        cold = cache.equals("cold");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        DatabaseHelper.shutdown();
+        TaskDataSet.delete(dbFile);
+    }
+
+    // Full reload into the observable list
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int loadTasks() throws SQLException {
+        controller.loadTasks();
+        return controller.getTaskObservableList().size();
+    }
+
+    @Benchmark
+    public ObservableList<Task> searchTasks() throws SQLException {
+        return controller.searchTasks(TaskDataSet.WORDS[ThreadLocalRandom.current().nextInt(TaskDataSet.WORDS.length)]);
+    }
+
+    @Benchmark
+    public Task getTaskById() throws SQLException {
+        if (cold) {
+            service.getCache().clear();
+        }
+        return controller.getTaskById(ThreadLocalRandom.current().nextInt(1, rows + 1));
+    }
+}
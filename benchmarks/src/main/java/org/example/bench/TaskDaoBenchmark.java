@@ -0,0 +1,61 @@
+package org.example.bench;
+
+import org.example.DatabaseHelper;
+import org.example.Task;
+import org.example.TaskDaoImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// TaskDaoImpl through the application's own pool and write queue, at growing table sizes
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskDaoBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private Path dbFile;
+    private TaskDaoImpl dao;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dbFile = TaskDataSet.create(rows);
+        TaskDataSet.useForDatabaseHelper(dbFile);
+        dao = new TaskDaoImpl();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        DatabaseHelper.shutdown();
+        TaskDataSet.delete(dbFile);
+    }
+
+    // One queued write and commit per task
+    @Benchmark
+    public int insertTask() throws SQLException {
+        Task task = new Task("Benchmark task", "Home", "Inserted by TaskDaoBenchmark", false, LocalDateTime.now(), null);
+        dao.insertTask(task);
+        return task.getId();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Task> getAllTasks() throws SQLException {
+        return dao.getAllTasks();
+    }
+
+    @Benchmark
+    public Task getTaskById() throws SQLException {
+        return dao.getTaskById(ThreadLocalRandom.current().nextInt(1, rows + 1));
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.bench;
+
+import org.example.SchemaMigrator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Temporary tasks.db files for the benchmarks. Rows are generated in SQL (one
+ * recursive CTE, one transaction), so even a million-row file builds in seconds.
+ * Names and descriptions draw from a small vocabulary so searches have realistic
+ * hit rates; created_at is one second apart, newest last; a third of the tasks are
+ * completed and every fifth has a deadline.
+ * <p>
+ * Benchmarks that go through DatabaseHelper call {@link #useForDatabaseHelper}
+ * before anything touches it: its pool is fixed for the life of the JVM, which is
+ * why each of them runs in its own fork per parameter set.
+ */
+public final class TaskDataSet {
+
+    public static final String[] WORDS = {
+            "laundry", "dishes", "vacuum", "garden", "groceries", "windows", "garage", "bathroom",
+            "kitchen", "recycling", "dog", "plants", "bills", "oven", "fridge", "curtains"
+    };
+    public static final String[] CATEGORIES = {"Home", "Garden", "Errands", "Kitchen", "Pets"};
+
+    // 2024-01-01T00:00:00Z in epoch millis, the created_at of the first row
+    private static final long BASE_MILLIS = 1_704_067_200_000L;
+
+    private TaskDataSet() {
+    }
+
+    // Method to create a migrated database file holding the given number of tasks
+    public static Path create(int rows) throws IOException, SQLException {
+        Path dbFile = Files.createTempFile("tasks-bench", ".db");
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + dbFile)) {
+            SchemaMigrator.migrate(connection);
+            connection.setAutoCommit(false);
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate("CREATE TEMP TABLE words (n INTEGER PRIMARY KEY, word TEXT)");
+                for (int i = 0; i < WORDS.length; i++) {
+                    stmt.executeUpdate("INSERT INTO words VALUES (" + i + ", '" + WORDS[i] + "')");
+                }
+                stmt.executeUpdate("CREATE TEMP TABLE categories (n INTEGER PRIMARY KEY, name TEXT)");
+                for (int i = 0; i < CATEGORIES.length; i++) {
+                    stmt.executeUpdate("INSERT INTO categories VALUES (" + i + ", '" + CATEGORIES[i] + "')");
+                }
+                stmt.executeUpdate("WITH RECURSIVE n(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < " + rows + ") "
+                        + "INSERT INTO tasks (task_name, category, description, completed, created_at, deadline) "
+                        + "SELECT 'Clean ' || (SELECT word FROM words WHERE n = i % " + WORDS.length + ") || ' ' || i, "
+                        + "(SELECT name FROM categories WHERE n = i % " + CATEGORIES.length + "), "
+                        + "'Remember the ' || (SELECT word FROM words WHERE n = (i * 7) % " + WORDS.length + ") "
+                        + "|| ' and the ' || (SELECT word FROM words WHERE n = (i * 13) % " + WORDS.length + ") || ' before the weekend', "
+                        + "i % 3 = 0, " + BASE_MILLIS + " + i * 1000, "
+                        + "CASE WHEN i % 5 = 0 THEN " + BASE_MILLIS + " + i * 1000 + 86400000 END FROM n");
+                stmt.executeUpdate("ANALYZE");
+            }
+            connection.commit();
+        }
+        return dbFile;
+    }
+
+    // Method to point DatabaseHelper (and with it TaskDaoImpl, TaskController and CsvExporter) at a file
+    public static void useForDatabaseHelper(Path dbFile) {
+        System.setProperty("tasks.db.url", "jdbc:sqlite:" + dbFile);
+    }
+
+    // Method to remove a database file and its WAL side files
+    public static void delete(Path dbFile) throws IOException {
+        Files.deleteIfExists(dbFile);
+        Files.deleteIfExists(Path.of(dbFile + "-wal"));
+        Files.deleteIfExists(Path.of(dbFile + "-shm"));
+    }
+}
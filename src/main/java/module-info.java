@@ -1,5 +1,7 @@
 module TaskManagementApp {
     requires java.sql;
+    requires jdk.httpserver;
+    requires jdk.jfr;
     requires transitive javafx.controls;
     requires transitive javafx.graphics;
     requires javafx.fxml;
@@ -0,0 +1,66 @@
+package org.example;
+
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Outcome of a bulk insert/update/delete: one row count per input row (in input
+ * order), for inserts the generated task IDs and for status updates the rows'
+ * new versions.
+ */
+public class BatchResult {
+    private final int[] rowCounts;
+    private final int[] generatedIds;
+    private final int[] versions;
+
+    public BatchResult(int[] rowCounts, int[] generatedIds) {
+        this(rowCounts, generatedIds, new int[0]);
+    }
+
+    public BatchResult(int[] rowCounts, int[] generatedIds, int[] versions) {
+        this.rowCounts = rowCounts;
+        this.generatedIds = generatedIds;
+        this.versions = versions;
+    }
+
+    // Number of rows in the batch
+    public int size() {
+        return rowCounts.length;
+    }
+
+    // Rows affected by each statement (0 means e.g. no task with that ID)
+    public int[] getRowCounts() {
+        return rowCounts.clone();
+    }
+
+    // Generated IDs for an insert batch, empty for updates and deletes
+    public int[] getGeneratedIds() {
+        return generatedIds.clone();
+    }
+
+    // New row version for each input row of a status update (0 where nothing changed), empty otherwise
+    public int[] getVersions() {
+        return versions.clone();
+    }
+
+    // Whether the row at the given input position changed anything
+    public boolean isAffected(int index) {
+        return rowCounts[index] > 0 || rowCounts[index] == Statement.SUCCESS_NO_INFO;
+    }
+
+    public int getAffectedCount() {
+        int affected = 0;
+        for (int i = 0; i < rowCounts.length; i++) {
+            if (isAffected(i)) {
+                affected++;
+            }
+        }
+        return affected;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{rows=" + size() + ", affected=" + getAffectedCount()
+                + ", generatedIds=" + Arrays.toString(generatedIds) + "}";
+    }
+}
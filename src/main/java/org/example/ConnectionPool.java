@@ -0,0 +1,406 @@
+package org.example;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded pool of SQLite connections: a single writer connection plus up to
+ * {@code maxReaders} read-only connections. SQLite only allows one writer at a
+ * time, so writes are serialized on the writer instead of failing with SQLITE_BUSY.
+ * Connections handed out by the pool are returned to it when closed, and each
+ * physical connection keeps a {@link StatementCache} of its prepared statements.
+ * Every new connection gets the PRAGMAs of the pool's {@link StorageConfig}.
+ */
+public class ConnectionPool {
+    private static final Logger logger = Logger.getLogger(ConnectionPool.class.getName());
+
+    private final String url;
+    private final int maxReaders;
+    private final long acquireTimeoutMillis;
+    private final long validationIntervalMillis;
+    private final int statementCacheSize;
+    private final StorageConfig storageConfig;
+
+    // Writer: one physical connection guarded by a fair permit
+    private final Semaphore writerPermit = new Semaphore(1, true);
+    private volatile PooledConnection writer;
+
+    // Readers: created lazily up to maxReaders
+    private final BlockingQueue<PooledConnection> idleReaders = new LinkedBlockingQueue<>();
+    private final AtomicInteger openReaders = new AtomicInteger();
+
+    // Metrics
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder discardedCount = new LongAdder();
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+    private final LongAdder statementEvictions = new LongAdder();
+
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, int maxReaders, long acquireTimeoutMillis, long validationIntervalMillis,
+                          int statementCacheSize) {
+        this(url, maxReaders, acquireTimeoutMillis, validationIntervalMillis, statementCacheSize,
+                StorageConfig.forProfile(StorageConfig.Profile.BALANCED));
+    }
+
+    public ConnectionPool(String url, int maxReaders, long acquireTimeoutMillis, long validationIntervalMillis,
+                          int statementCacheSize, StorageConfig storageConfig) {
+        if (maxReaders <= 0) {
+            throw new IllegalArgumentException("Pool must allow at least one reader.");
+        }
+        this.url = url;
+        this.maxReaders = maxReaders;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.validationIntervalMillis = validationIntervalMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.storageConfig = storageConfig;
+    }
+
+    // Method to borrow the single writer connection (blocks until it is free)
+    public Connection getWriteConnection() throws SQLException {
+        ensureOpen();
+        long start = System.nanoTime();
+        try {
+            if (!writerPermit.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.increment();
+                throw new SQLException("Timed out after " + acquireTimeoutMillis + " ms waiting for the write connection.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the write connection.", e);
+        }
+
+        try {
+            if (writer == null || !isHealthy(writer)) {
+                discard(writer);
+                writer = open(false);
+            }
+        } catch (SQLException e) {
+            writer = null;
+            writerPermit.release();
+            throw e;
+        }
+        recordAcquire(start);
+        return wrap(writer);
+    }
+
+    // Method to borrow a read-only connection
+    public Connection getReadConnection() throws SQLException {
+        ensureOpen();
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMillis);
+
+        while (true) {
+            PooledConnection reader = idleReaders.poll();
+            if (reader == null) {
+                if (openReaders.incrementAndGet() <= maxReaders) {
+                    try {
+                        reader = open(true);
+                    } catch (SQLException e) {
+                        openReaders.decrementAndGet();
+                        throw e;
+                    }
+                } else {
+                    openReaders.decrementAndGet();
+                    long remaining = deadline - System.nanoTime();
+                    try {
+                        reader = remaining > 0 ? idleReaders.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a read connection.", e);
+                    }
+                    if (reader == null) {
+                        timeoutCount.increment();
+                        throw new SQLException("Timed out after " + acquireTimeoutMillis + " ms waiting for a read connection.");
+                    }
+                }
+            }
+
+            if (isHealthy(reader)) {
+                recordAcquire(start);
+                return wrap(reader);
+            }
+            discard(reader);
+            openReaders.decrementAndGet();
+        }
+    }
+
+    // Method to close every physical connection; borrowed connections are closed when returned
+    public void close() {
+        closed = true;
+        List<PooledConnection> readers = new ArrayList<>();
+        idleReaders.drainTo(readers);
+        for (PooledConnection reader : readers) {
+            discard(reader);
+            openReaders.decrementAndGet();
+        }
+        if (writerPermit.tryAcquire()) {
+            discard(writer);
+            writer = null;
+            writerPermit.release();
+        }
+        logger.info("Connection pool closed. " + this);
+    }
+
+    public int getActiveCount() {
+        return activeConnections.get();
+    }
+
+    public int getIdleCount() {
+        return idleReaders.size() + (writer != null && writerPermit.availablePermits() > 0 ? 1 : 0);
+    }
+
+    public int getMaxReaders() {
+        return maxReaders;
+    }
+
+    public StorageConfig getStorageConfig() {
+        return storageConfig;
+    }
+
+    public long getAcquireCount() {
+        return acquireCount.sum();
+    }
+
+    public double getAverageWaitMillis() {
+        long count = acquireCount.sum();
+        return count == 0 ? 0.0 : totalWaitNanos.sum() / (count * 1_000_000.0);
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    public long getDiscardedCount() {
+        return discardedCount.sum();
+    }
+
+    public long getStatementCacheHits() {
+        return statementHits.sum();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementMisses.sum();
+    }
+
+    public long getStatementCacheEvictions() {
+        return statementEvictions.sum();
+    }
+
+    public double getStatementCacheHitRate() {
+        long hits = statementHits.sum();
+        long total = hits + statementMisses.sum();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConnectionPool[active=%d, idle=%d, readers=%d/%d, acquired=%d, avgWait=%.3fms, maxWait=%.3fms, timeouts=%d, discarded=%d, "
+                        + "stmtHits=%d, stmtMisses=%d, stmtEvictions=%d]",
+                getActiveCount(), getIdleCount(), openReaders.get(), maxReaders, getAcquireCount(),
+                getAverageWaitMillis(), getMaxWaitMillis(), getTimeoutCount(), getDiscardedCount(),
+                getStatementCacheHits(), getStatementCacheMisses(), getStatementCacheEvictions());
+    }
+
+    private void ensureOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool has been closed.");
+        }
+    }
+
+    private PooledConnection open(boolean readOnly) throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("busy_timeout", String.valueOf(acquireTimeoutMillis));
+        Connection connection = DriverManager.getConnection(url, properties);
+        try {
+            storageConfig.apply(connection, readOnly);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        if (readOnly) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("PRAGMA query_only = ON");
+            }
+        }
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Database connection opened (" + (readOnly ? "reader" : "writer") + ").");
+        }
+        StatementCache statements = new StatementCache(connection, statementCacheSize,
+                statementHits, statementMisses, statementEvictions);
+        return new PooledConnection(connection, readOnly, statements);
+    }
+
+    // Health check: a cheap query, only run when the connection has been idle for a while
+    private boolean isHealthy(PooledConnection pooled) {
+        try {
+            if (pooled.connection.isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - pooled.lastUsed < validationIntervalMillis) {
+                return true;
+            }
+            try (Statement stmt = pooled.connection.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT 1")) {
+                return rs.next();
+            }
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Pooled connection failed health check: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        if (pooled == null) {
+            return;
+        }
+        discardedCount.increment();
+        pooled.statements.closeAll();
+        try {
+            pooled.connection.close();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Error closing pooled connection: " + e.getMessage(), e);
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        activeConnections.decrementAndGet();
+        pooled.lastUsed = System.currentTimeMillis();
+
+        // Never hand out a connection with a half-finished transaction
+        boolean healthy = true;
+        try {
+            if (!pooled.connection.isClosed() && !pooled.connection.getAutoCommit()) {
+                pooled.connection.rollback();
+                pooled.connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Error resetting pooled connection: " + e.getMessage(), e);
+            healthy = false;
+        }
+
+        if (pooled.readOnly) {
+            if (healthy && !closed) {
+                idleReaders.offer(pooled);
+            } else {
+                discard(pooled);
+                openReaders.decrementAndGet();
+            }
+        } else {
+            if (!healthy || closed) {
+                discard(pooled);
+                writer = null;
+            }
+            writerPermit.release();
+        }
+    }
+
+    private void recordAcquire(long startNanos) {
+        long waited = System.nanoTime() - startNanos;
+        acquireCount.increment();
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        activeConnections.incrementAndGet();
+    }
+
+    private Connection wrap(PooledConnection pooled) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(pooled));
+    }
+
+    private static final class PooledConnection {
+        private final Connection connection;
+        private final boolean readOnly;
+        private final StatementCache statements;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private PooledConnection(Connection connection, boolean readOnly, StatementCache statements) {
+            this.connection = connection;
+            this.readOnly = readOnly;
+            this.statements = statements;
+        }
+    }
+
+    // Hands calls through to the physical connection; close() returns it to the pool and
+    // prepareStatement(sql) / prepareStatement(sql, autoGeneratedKeys) go through the statement cache
+    private final class ConnectionHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean released;
+
+        private ConnectionHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    if (released) {
+                        return true;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "prepareStatement":
+                    if (released) {
+                        throw new SQLException("Connection has already been returned to the pool.");
+                    }
+                    if (args.length == 1) {
+                        return pooled.statements.prepare((String) args[0], Statement.NO_GENERATED_KEYS);
+                    }
+                    if (args.length == 2 && args[1] instanceof Integer) {
+                        return pooled.statements.prepare((String) args[0], (Integer) args[1]);
+                    }
+                    break;
+                default:
+                    if (released) {
+                        throw new SQLException("Connection has already been returned to the pool.");
+                    }
+            }
+
+            try {
+                return method.invoke(pooled.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams the tasks table to an RFC 4180 CSV file. Rows are read from a
+ * forward-only cursor {@code fetchSize} at a time and encoded straight into one
+ * reusable byte buffer, so memory use does not depend on the number of rows.
+ * The export is cancelled by interrupting the exporting thread; a cancelled or
+ * failed export deletes its partial file.
+ */
+public class CsvExporter {
+    private static final Logger logger = Logger.getLogger(CsvExporter.class.getName());
+
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+    // Rows between progress callbacks
+    private static final int PROGRESS_INTERVAL = 10_000;
+
+    private static final String HEADER = "ID,Task Name,Category,Description,Created At,Deadline,Completed";
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM tasks";
+    private static final String EXPORT_SQL =
+            "SELECT id, task_name, category, description, created_at, deadline, completed FROM tasks ORDER BY id";
+
+    private final int fetchSize;
+    private final int bufferSize;
+
+    public CsvExporter() {
+        this(DEFAULT_FETCH_SIZE, DEFAULT_BUFFER_SIZE);
+    }
+
+    public CsvExporter(int fetchSize, int bufferSize) {
+        if (fetchSize <= 0 || bufferSize < 1024) {
+            throw new IllegalArgumentException("Fetch size must be positive and the buffer at least 1 KiB.");
+        }
+        this.fetchSize = fetchSize;
+        this.bufferSize = bufferSize;
+    }
+
+    // Called with the rows written so far and the row count at the start of the export
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(long rowsWritten, long totalRows);
+    }
+
+    // Method to export every task to the file, gzip-compressed if requested; returns the row count
+    public long export(Path target, boolean gzip, ProgressListener listener)
+            throws IOException, SQLException, InterruptedException {
+        boolean finished = false;
+        try (Connection connection = DatabaseHelper.getReadConnection()) {
+            long total = countRows(connection);
+            long written;
+            try (WritableByteChannel channel = openChannel(target, gzip)) {
+                written = writeRows(connection, channel, total, listener);
+            }
+            finished = true;
+            logger.info("Exported " + written + " task(s) to " + target + ".");
+            return written;
+        } catch (ClosedByInterruptException e) {
+            throw new InterruptedException("Export cancelled.");
+        } finally {
+            if (!finished) {
+                Files.deleteIfExists(target);
+            }
+        }
+    }
+
+    private long writeRows(Connection connection, WritableByteChannel channel, long total, ProgressListener listener)
+            throws IOException, SQLException, InterruptedException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        StringBuilder line = new StringBuilder(256);
+
+        line.append(HEADER).append("\r\n");
+        encode(line, encoder, buffer, channel);
+
+        long written = 0;
+        try (Statement stmt = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(fetchSize);
+            try (ResultSet rs = stmt.executeQuery(EXPORT_SQL)) {
+                while (rs.next()) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException("Export cancelled.");
+                    }
+                    line.setLength(0);
+                    line.append(rs.getInt(1)).append(',');
+                    appendField(line, rs.getString(2)).append(',');
+                    appendField(line, rs.getString(3)).append(',');
+                    appendField(line, rs.getString(4)).append(',');
+                    appendTimestamp(line, rs, 5).append(',');
+                    appendTimestamp(line, rs, 6).append(',');
+                    line.append(rs.getBoolean(7) ? "Yes" : "No").append("\r\n");
+                    encode(line, encoder, buffer, channel);
+
+                    written++;
+                    if (listener != null && written % PROGRESS_INTERVAL == 0) {
+                        listener.onProgress(written, total);
+                    }
+                }
+            }
+        }
+
+        line.setLength(0);
+        encoder.encode(CharBuffer.wrap(line), buffer, true);
+        encoder.flush(buffer);
+        drain(buffer, channel);
+        if (listener != null) {
+            listener.onProgress(written, total);
+        }
+        return written;
+    }
+
+    // Appends a field, quoted only when it contains a comma, quote or line break (RFC 4180)
+    static StringBuilder appendField(StringBuilder line, String value) {
+        if (value == null) {
+            return line;
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!needsQuotes) {
+            return line.append(value);
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        return line.append('"');
+    }
+
+    // ISO local date-time (never needs quoting); empty for NULL
+    private static StringBuilder appendTimestamp(StringBuilder line, ResultSet rs, int column) throws SQLException {
+        LocalDateTime value = TimestampCodec.read(rs, column);
+        return value != null ? line.append(value) : line;
+    }
+
+    private static void encode(StringBuilder line, CharsetEncoder encoder, ByteBuffer buffer, WritableByteChannel channel)
+            throws IOException {
+        CharBuffer chars = CharBuffer.wrap(line);
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, false);
+            if (result.isOverflow()) {
+                drain(buffer, channel);
+            } else if (result.isUnderflow()) {
+                return;
+            } else {
+                result.throwException();
+            }
+        }
+    }
+
+    private static void drain(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static long countRows(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(COUNT_SQL)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private WritableByteChannel openChannel(Path target, boolean gzip) throws IOException {
+        FileChannel file = FileChannel.open(target,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        if (!gzip) {
+            return file;
+        }
+        try {
+            OutputStream out = new GZIPOutputStream(Channels.newOutputStream(file), bufferSize);
+            return Channels.newChannel(out);
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+}
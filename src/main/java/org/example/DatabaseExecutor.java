@@ -0,0 +1,68 @@
+package org.example;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs database work on virtual threads (one per task) so callers such as the
+ * JavaFX Application Thread never block on SQLite. Cancelling a returned future
+ * interrupts the thread running the work.
+ */
+public final class DatabaseExecutor {
+    private static final Logger logger = Logger.getLogger(DatabaseExecutor.class.getName());
+    private static final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private DatabaseExecutor() {
+    }
+
+    // Method to run work in the background and complete the future with its result
+    public static <T> CompletableFuture<T> supply(Callable<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> running = executor.submit(() -> {
+            try {
+                result.complete(work.call());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                running.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    // Method to run work without a result in the background
+    public static CompletableFuture<Void> run(Work work) {
+        return supply(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // Method to stop accepting work and wait briefly for running work to finish
+    public static void shutdown() {
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warning("Database work still running after shutdown.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.log(Level.WARNING, "Interrupted while shutting down database executor.", e);
+        }
+    }
+
+    // Background work that returns nothing but may throw (e.g. SQLException)
+    @FunctionalInterface
+    public interface Work {
+        void run() throws Exception;
+    }
+}
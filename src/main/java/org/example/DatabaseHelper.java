@@ -1,54 +1,167 @@
 package org.example;
 
 import java.sql.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.sql.Timestamp;
-import java.time.LocalDateTime;
 
 public class DatabaseHelper {
-    private static final String URL = "jdbc:sqlite:tasks.db";
+    // -Dtasks.db.url points the application at another database file (benchmarks use temporary ones)
+    private static final String URL = System.getProperty("tasks.db.url", "jdbc:sqlite:tasks.db");
     private static final Logger logger = Logger.getLogger(DatabaseHelper.class.getName());
 
+    // JDBC URL of the database in use (files derived from it, like TaskSnapshot, record it)
+    static String getUrl() {
+        return URL;
+    }
+
     // SQL query to check if the table exists
     private static final String TABLE_EXISTS_SQL = "SELECT name FROM sqlite_master WHERE type='table' AND name='tasks';";
 
-    // SQL query to drop and create the table
+    // SQL query to drop the table (the schema itself is created by SchemaMigrator)
     private static final String DROP_TABLE_SQL = "DROP TABLE IF EXISTS tasks;";
-    private static final String CREATE_TABLE_SQL =
-            "CREATE TABLE IF NOT EXISTS tasks (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "task_name TEXT NOT NULL," +
-                    "category TEXT," +
-                    "description TEXT," +
-                    "completed BOOLEAN," +
-                    "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
-                    "deadline TIMESTAMP" +
-                    ");";
-
-    // Method to get the database connection
+
+    // Set once the schema is known to be current, so later callers skip even the version check
+    private static volatile boolean schemaReady;
+
+    // Journal mode, synchronous, cache and mmap sizes; see StorageConfig for the -Dtasks.db.* switches
+    private static final StorageConfig storageConfig = StorageConfig.fromSystemProperties();
+
+    // Pool sizing can be tuned with -Dtasks.db.pool.readers, -Dtasks.db.pool.timeoutMillis,
+    // -Dtasks.db.pool.validationMillis and -Dtasks.db.pool.statementCacheSize (0 disables caching)
+    private static final ConnectionPool pool = new ConnectionPool(
+            URL,
+            Integer.getInteger("tasks.db.pool.readers", 4),
+            Long.getLong("tasks.db.pool.timeoutMillis", 5000L),
+            Long.getLong("tasks.db.pool.validationMillis", 30000L),
+            Integer.getInteger("tasks.db.pool.statementCacheSize", 64),
+            storageConfig);
+
+    // All application writes go through this queue so concurrent mutations share a commit
+    private static final WriteQueue writeQueue = new WriteQueue(pool, storageConfig.getWriteBatchSize());
+
+    // Committed task changes are published here (see TaskEventBus for -Dtasks.events.*)
+    private static final TaskEventBus eventBus = TaskEventBus.fromSystemProperties();
+
+    // Background PASSIVE checkpoints keep the WAL file from growing between auto-checkpoints
+    private static ScheduledExecutorService checkpointScheduler;
+
+    // Method to get the database connection (the pooled writer, safe for reads and writes)
     public static Connection getConnection() throws SQLException {
-        Connection connection = null;
+        return getWriteConnection();
+    }
+
+    // Method to get the single pooled write connection
+    public static Connection getWriteConnection() throws SQLException {
+        TaskMetrics.Sample sample = TaskMetrics.DB_ACQUIRE_WRITE.start();
         try {
-            connection = DriverManager.getConnection(URL);
-            if (connection != null) {
-                logger.info("Database connection successful.");
-            }
+            Connection connection = pool.getWriteConnection();
+            sample.stop();
+            return connection;
+        } catch (SQLException e) {
+            sample.fail();
+            logger.log(Level.SEVERE, "Failed to connect to the database: " + e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    // Method to get a pooled read-only connection
+    public static Connection getReadConnection() throws SQLException {
+        TaskMetrics.Sample sample = TaskMetrics.DB_ACQUIRE_READ.start();
+        try {
+            Connection connection = pool.getReadConnection();
+            sample.stop();
+            return connection;
         } catch (SQLException e) {
+            sample.fail();
             logger.log(Level.SEVERE, "Failed to connect to the database: " + e.getMessage(), e);
             throw e;
         }
-        return connection;
     }
 
-    // Convert LocalDateTime to Timestamp
-    public static Timestamp convertToTimestamp(LocalDateTime localDateTime) {
-        return Timestamp.valueOf(localDateTime);
+    // Method to expose pool metrics (wait time, active/idle counts)
+    public static ConnectionPool getPool() {
+        return pool;
+    }
+
+    // Method to run a write on the single-writer queue; returns once the write has been committed
+    public static <T> T write(WriteQueue.Operation<T> operation) throws SQLException {
+        return writeQueue.execute(operation);
+    }
+
+    // Method to queue a write without waiting for its commit
+    public static <T> CompletableFuture<T> submitWrite(WriteQueue.Operation<T> operation) {
+        return writeQueue.submit(operation);
+    }
+
+    public static WriteQueue getWriteQueue() {
+        return writeQueue;
+    }
+
+    public static TaskEventBus getEventBus() {
+        return eventBus;
+    }
+
+    public static StorageConfig getStorageConfig() {
+        return storageConfig;
+    }
+
+    // Method to copy WAL frames back into the database file (mode is PASSIVE, FULL, RESTART or TRUNCATE)
+    public static void checkpoint(String mode) throws SQLException {
+        try (Connection connection = getWriteConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA wal_checkpoint(" + mode + ")")) {
+            if (rs.next() && logger.isLoggable(Level.FINE)) {
+                logger.fine("WAL checkpoint (" + mode + "): busy=" + rs.getInt(1)
+                        + ", log=" + rs.getInt(2) + ", checkpointed=" + rs.getInt(3) + ".");
+            }
+        }
+    }
+
+    // Method to start the periodic checkpoint task (no-op if disabled or already running)
+    private static synchronized void startCheckpointScheduler() {
+        int interval = storageConfig.getCheckpointIntervalSeconds();
+        if (interval <= 0 || checkpointScheduler != null) {
+            return;
+        }
+        checkpointScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tasks-db-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checkpointScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint("PASSIVE");
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Periodic WAL checkpoint failed: " + e.getMessage(), e);
+            }
+        }, interval, interval, TimeUnit.SECONDS);
     }
 
-    // Convert Timestamp to LocalDateTime
-    public static LocalDateTime convertToLocalDateTime(Timestamp timestamp) {
-        return timestamp.toLocalDateTime();
+    // Method to flush pending writes, checkpoint and close all pooled connections on application shutdown
+    public static void shutdown() {
+        synchronized (DatabaseHelper.class) {
+            if (checkpointScheduler != null) {
+                checkpointScheduler.shutdownNow();
+                checkpointScheduler = null;
+            }
+        }
+        // Undispatched events stay in the outbox (if enabled) for the next start
+        eventBus.close();
+        writeQueue.close();
+        try {
+            checkpoint("TRUNCATE");
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Final WAL checkpoint failed: " + e.getMessage(), e);
+        }
+        logger.info("Storage closed. " + writeQueue);
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Operation metrics:\n" + TaskMetrics.toText());
+        }
+        pool.close();
     }
 
     // Method to check if the tasks table exists
@@ -66,79 +179,41 @@ public class DatabaseHelper {
     public static void dropTable() throws SQLException {
         try (Connection connection = getConnection(); Statement stmt = connection.createStatement()) {
             stmt.executeUpdate(DROP_TABLE_SQL);
+            stmt.executeUpdate("PRAGMA user_version = 0");
+            schemaReady = false;
             logger.info("Dropped tasks table.");
         }
     }
 
     // Method to create the tasks table if it doesn't already exist
     public static void createTable() throws SQLException {
-        try (Connection connection = getConnection(); Statement stmt = connection.createStatement()) {
-            stmt.executeUpdate(CREATE_TABLE_SQL);
-            logger.info("Created tasks table.");
-        }
+        initializeSchema();
     }
 
-    // Method to delete invalid tasks (tasks with NULL or 0 ID)
-    public static void deleteInvalidTasks() {
-        String deleteQuery = "DELETE FROM tasks WHERE id IS NULL OR id = 0";
-        try (Connection connection = getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(deleteQuery)) {
-
-            int rowsAffected = preparedStatement.executeUpdate();
-            if (rowsAffected > 0) {
-                logger.info("Successfully deleted " + rowsAffected + " invalid task(s).");
-            } else {
-                logger.info("No invalid tasks found to delete.");
+    // Method to bring the schema up to date (runs pending migrations once per process)
+    public static void initializeSchema() throws SQLException {
+        if (schemaReady) {
+            return;
+        }
+        try (Connection connection = getWriteConnection()) {
+            int applied = SchemaMigrator.migrate(connection);
+            if (applied > 0) {
+                logger.info("Schema migrated to version " + SchemaMigrator.latestVersion() + ".");
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error deleting invalid tasks: " + e.getMessage(), e);
+            schemaReady = true;
         }
+        startCheckpointScheduler();
     }
 
-    // Method to close connection
+    // Method to close connection (returns a pooled connection to the pool)
     public static void closeConnection(Connection connection) {
         if (connection != null) {
             try {
                 connection.close();
-                logger.info("Connection closed successfully.");
+                logger.fine("Connection returned to the pool.");
             } catch (SQLException e) {
                 logger.log(Level.WARNING, "Error closing connection: " + e.getMessage(), e);
             }
         }
     }
-
-    // Method to check and add missing columns if necessary
-    public static void checkAndAddMissingColumns(Connection connection) {
-        checkAndAddColumn(connection, "created_at", "TIMESTAMP DEFAULT CURRENT_TIMESTAMP");
-        checkAndAddColumn(connection, "deadline", "TIMESTAMP");
-    }
-
-    // Generic method to check and add a column if it doesn't exist
-    public static void checkAndAddColumn(Connection connection, String columnName, String columnDefinition) {
-        try (Statement stmt = connection.createStatement()) {
-            ResultSet rs = stmt.executeQuery("PRAGMA table_info(tasks);");
-            boolean columnExists = false;
-            while (rs.next()) {
-                if (rs.getString("name").equals(columnName)) {
-                    columnExists = true;
-                    break;
-                }
-            }
-
-            if (!columnExists) {
-                String addColumnSQL = "ALTER TABLE tasks ADD COLUMN " + columnName + " " + columnDefinition;
-                stmt.executeUpdate(addColumnSQL);
-                logger.info("Column '" + columnName + "' added successfully.");
-                if (columnName.equals("created_at")) {
-                    String updateSQL = "UPDATE tasks SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL";
-                    stmt.executeUpdate(updateSQL);
-                    logger.info("Existing rows updated with default 'created_at' value.");
-                }
-            } else {
-                logger.info("Column '" + columnName + "' already exists.");
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error checking or adding column '" + columnName + "': " + e.getMessage(), e);
-        }
-    }
 }
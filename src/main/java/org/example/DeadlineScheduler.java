@@ -0,0 +1,456 @@
+package org.example;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Fires events when open tasks reach their deadline. Only deadlines inside the
+ * current window (now to now + horizon) are held in memory, in a queue ordered by
+ * deadline; a single thread sleeps until the earliest one. Each window is loaded
+ * by one range query on the deadline index, and the next one when the window
+ * ends, so the table is never rescanned on a timer.
+ * <p>
+ * Tasks already past their deadline when the scheduler starts, or saved with a
+ * deadline in the past, are reported as {@link Kind#OVERDUE}. A due task that is
+ * completed, deleted or moved to a later deadline is reported as
+ * {@link Kind#CLEARED}. Writers tell the scheduler about changes through
+ * {@link #taskSaved}, {@link #taskDeleted}, {@link #taskCompleted} and
+ * {@link #taskReopened}; TaskController does this for its mutations. Bulk imports
+ * are seen from the next window load.
+ * <p>
+ * Listeners run on the scheduler thread and must hand UI work to the JavaFX thread.
+ */
+public class DeadlineScheduler implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(DeadlineScheduler.class.getName());
+
+    public static final long DEFAULT_HORIZON_MILLIS = TimeUnit.HOURS.toMillis(24);
+
+    private static final String WINDOW_SQL = "SELECT id, task_name, deadline FROM tasks " +
+            "WHERE deadline >= ? AND deadline < ? AND completed = 0 ORDER BY deadline";
+    private static final String OVERDUE_SQL = "SELECT id, task_name, deadline FROM tasks " +
+            "WHERE deadline < ? AND completed = 0 ORDER BY deadline";
+    private static final String TASK_SQL = "SELECT " + TaskDaoImpl.TASK_COLUMNS + " FROM tasks WHERE id = ?";
+
+    public enum Kind {
+        // The deadline passed while the scheduler was running
+        DUE,
+        // The deadline had already passed when the task was loaded or saved
+        OVERDUE,
+        // A due or overdue task was completed, deleted or given a later deadline
+        CLEARED
+    }
+
+    public static final class DeadlineEvent {
+        private final Kind kind;
+        private final int taskId;
+        private final String taskName;
+        private final LocalDateTime deadline;
+
+        DeadlineEvent(Kind kind, int taskId, String taskName, LocalDateTime deadline) {
+            this.kind = kind;
+            this.taskId = taskId;
+            this.taskName = taskName;
+            this.deadline = deadline;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public int getTaskId() {
+            return taskId;
+        }
+
+        // Null for CLEARED events
+        public String getTaskName() {
+            return taskName;
+        }
+
+        public LocalDateTime getDeadline() {
+            return deadline;
+        }
+
+        @Override
+        public String toString() {
+            return "DeadlineEvent{" + kind + ", task=" + taskId + ", name=" + taskName + ", deadline=" + deadline + "}";
+        }
+    }
+
+    @FunctionalInterface
+    public interface DeadlineListener {
+        void onDeadline(DeadlineEvent event);
+    }
+
+    private final long horizonMillis;
+    private final List<DeadlineListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Everything below is guarded by lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final TreeSet<Entry> queue = new TreeSet<>();
+    private final Map<Integer, Entry> entriesById = new HashMap<>();
+    // CLEARED events raised by writers, delivered by the scheduler thread
+    private final List<DeadlineEvent> pendingEvents = new ArrayList<>();
+    // Tasks that have fired DUE/OVERDUE and are still open, by id
+    private final BitSet dueIds = new BitSet();
+    private int dueCount;
+    // Deadlines before this are in the queue (or have fired)
+    private long windowEnd = Long.MIN_VALUE;
+    // Changes that arrive while a window is being read; the newest one per task wins (null = gone)
+    private Map<Integer, Task> changedDuringLoad;
+    private boolean running;
+    private Thread thread;
+
+    public DeadlineScheduler() {
+        this(DEFAULT_HORIZON_MILLIS);
+    }
+
+    public DeadlineScheduler(long horizonMillis) {
+        if (horizonMillis <= 0) {
+            throw new IllegalArgumentException("Horizon must be positive.");
+        }
+        this.horizonMillis = horizonMillis;
+    }
+
+    public void addListener(DeadlineListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(DeadlineListener listener) {
+        listeners.remove(listener);
+    }
+
+    // Listener that logs deadlines as they fall due (overdue and cleared tasks at FINE, as there may be many)
+    public static DeadlineListener loggingListener() {
+        return event -> {
+            Level level = event.getKind() == Kind.DUE ? Level.INFO : Level.FINE;
+            if (logger.isLoggable(level)) {
+                logger.log(level, "Task " + event.getTaskId() + " " + event.getKind().name().toLowerCase()
+                        + (event.getTaskName() != null ? ": " + event.getTaskName() + " (deadline " + event.getDeadline() + ")" : ""));
+            }
+        };
+    }
+
+    // Method to start the scheduler thread; it reports overdue tasks, then loads the first window
+    public void start() {
+        lock.lock();
+        try {
+            if (running) {
+                return;
+            }
+            running = true;
+            thread = new Thread(this::run, "tasks-deadline-scheduler");
+            thread.setDaemon(true);
+            thread.start();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        Thread stopping;
+        lock.lock();
+        try {
+            running = false;
+            stopping = thread;
+            thread = null;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (stopping != null) {
+            stopping.interrupt();
+        }
+    }
+
+    // Method to (re)schedule a task after it was inserted or updated
+    public void taskSaved(Task task) {
+        if (task == null || task.getId() <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (changedDuringLoad != null) {
+                changedDuringLoad.put(task.getId(), new Task(task));
+            }
+            apply(task.getId(), task, System.currentTimeMillis());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void taskDeleted(int taskId) {
+        lock.lock();
+        try {
+            if (changedDuringLoad != null) {
+                changedDuringLoad.put(taskId, null);
+            }
+            apply(taskId, null, System.currentTimeMillis());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // A completed task no longer has a pending deadline
+    public void taskCompleted(int taskId) {
+        taskDeleted(taskId);
+    }
+
+    // Method to reload a reopened task's deadline (one primary-key lookup)
+    public void taskReopened(int taskId) throws SQLException {
+        try (Connection connection = DatabaseHelper.getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(TASK_SQL)) {
+            pstmt.setInt(1, taskId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    taskSaved(TaskDaoImpl.mapTask(rs));
+                } else {
+                    taskDeleted(taskId);
+                }
+            }
+        }
+    }
+
+    // Number of open tasks that are due or overdue
+    public int getDueCount() {
+        lock.lock();
+        try {
+            return dueCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Number of deadlines waiting in the current window
+    public int getScheduledCount() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return "DeadlineScheduler[scheduled=" + queue.size() + ", due=" + dueCount + ", horizon="
+                    + TimeUnit.MILLISECONDS.toMinutes(horizonMillis) + "min]";
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run() {
+        try {
+            loadWindow(System.currentTimeMillis(), true);
+
+            List<DeadlineEvent> events = new ArrayList<>();
+            while (true) {
+                boolean windowEnded = false;
+                lock.lock();
+                try {
+                    while (running && events.isEmpty() && !windowEnded) {
+                        long now = System.currentTimeMillis();
+                        Entry first = queue.isEmpty() ? null : queue.first();
+                        if (!pendingEvents.isEmpty()) {
+                            events.addAll(pendingEvents);
+                            pendingEvents.clear();
+                        } else if (first != null && first.deadline <= now) {
+                            pollDue(now, events);
+                        } else if (now >= windowEnd) {
+                            windowEnded = true;
+                        } else {
+                            long wakeAt = first != null ? Math.min(first.deadline, windowEnd) : windowEnd;
+                            changed.await(wakeAt - now, TimeUnit.MILLISECONDS);
+                        }
+                    }
+                    if (!running) {
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                fire(events);
+                events.clear();
+                if (windowEnded) {
+                    loadWindow(windowEnd, false);
+                }
+            }
+        } catch (InterruptedException e) {
+            // close() was called
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Deadline scheduler stopped: " + e.getMessage(), e);
+        }
+    }
+
+    // Fires OVERDUE for every open task whose deadline is already past, streaming the rows
+    private int loadOverdue(Connection connection, long now) throws SQLException {
+        int count = 0;
+        try (PreparedStatement pstmt = connection.prepareStatement(OVERDUE_SQL)) {
+            pstmt.setLong(1, now);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int taskId = rs.getInt(1);
+                    lock.lock();
+                    try {
+                        if (!markDue(taskId)) {
+                            continue;
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                    fire(new DeadlineEvent(Kind.OVERDUE, taskId, rs.getString(2), TimestampCodec.read(rs, 3)));
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    // Reads the deadlines in [from, from + horizon) into the queue, first reporting
+    // the overdue tasks if asked to
+    private void loadWindow(long from, boolean withOverdue) throws SQLException {
+        long until = from + horizonMillis;
+        lock.lock();
+        try {
+            changedDuringLoad = new HashMap<>();
+        } finally {
+            lock.unlock();
+        }
+        List<Entry> loaded = new ArrayList<>();
+        try (Connection connection = DatabaseHelper.getReadConnection()) {
+            if (withOverdue) {
+                int overdue = loadOverdue(connection, from);
+                if (overdue > 0) {
+                    logger.info(overdue + " task(s) are past their deadline.");
+                }
+            }
+            try (PreparedStatement pstmt = connection.prepareStatement(WINDOW_SQL)) {
+                pstmt.setLong(1, from);
+                pstmt.setLong(2, until);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        loaded.add(new Entry(rs.getInt(1), rs.getString(2), rs.getLong(3), false));
+                    }
+                }
+            }
+        } finally {
+            lock.lock();
+            try {
+                Map<Integer, Task> changes = changedDuringLoad;
+                changedDuringLoad = null;
+                windowEnd = until;
+                for (Entry entry : loaded) {
+                    if (!changes.containsKey(entry.taskId) && !entriesById.containsKey(entry.taskId)) {
+                        entriesById.put(entry.taskId, entry);
+                        queue.add(entry);
+                    }
+                }
+                long now = System.currentTimeMillis();
+                for (Map.Entry<Integer, Task> change : changes.entrySet()) {
+                    apply(change.getKey(), change.getValue(), now);
+                }
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Brings one task's queue entry and due state in line with its saved state (null = gone)
+    private void apply(int taskId, Task task, long now) {
+        Entry existing = entriesById.remove(taskId);
+        if (existing != null) {
+            queue.remove(existing);
+        }
+        boolean pending = task != null && !task.isCompleted() && task.getDeadline() != null;
+        long deadline = pending ? TimestampCodec.toEpochMillis(task.getDeadline()) : 0;
+
+        if (dueIds.get(taskId) && (!pending || deadline > now)) {
+            dueIds.clear(taskId);
+            dueCount--;
+            pendingEvents.add(new DeadlineEvent(Kind.CLEARED, taskId, null, null));
+        }
+        if (pending && deadline < windowEnd && !dueIds.get(taskId)) {
+            Entry entry = new Entry(taskId, task.getTaskName(), deadline, deadline <= now);
+            entriesById.put(taskId, entry);
+            queue.add(entry);
+        }
+        changed.signalAll();
+    }
+
+    private void pollDue(long now, List<DeadlineEvent> events) {
+        while (!queue.isEmpty() && queue.first().deadline <= now) {
+            Entry entry = queue.pollFirst();
+            entriesById.remove(entry.taskId);
+            if (markDue(entry.taskId)) {
+                events.add(new DeadlineEvent(entry.overdue ? Kind.OVERDUE : Kind.DUE, entry.taskId, entry.taskName,
+                        TimestampCodec.fromEpochMillis(entry.deadline)));
+            }
+        }
+    }
+
+    private boolean markDue(int taskId) {
+        if (dueIds.get(taskId)) {
+            return false;
+        }
+        dueIds.set(taskId);
+        dueCount++;
+        return true;
+    }
+
+    private void fire(List<DeadlineEvent> events) {
+        for (DeadlineEvent event : events) {
+            fire(event);
+        }
+    }
+
+    private void fire(DeadlineEvent event) {
+        for (DeadlineListener listener : listeners) {
+            try {
+                listener.onDeadline(event);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Deadline listener failed: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    // A queued deadline, ordered by time then task id (a task has at most one entry)
+    private static final class Entry implements Comparable<Entry> {
+        private final int taskId;
+        private final String taskName;
+        private final long deadline;
+        private final boolean overdue;
+
+        private Entry(int taskId, String taskName, long deadline, boolean overdue) {
+            this.taskId = taskId;
+            this.taskName = taskName;
+            this.deadline = deadline;
+            this.overdue = overdue;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byDeadline = Long.compare(deadline, other.deadline);
+            return byDeadline != 0 ? byDeadline : Integer.compare(taskId, other.taskId);
+        }
+    }
+}
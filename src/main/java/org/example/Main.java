@@ -1,9 +1,11 @@
 package org.example;
 
 import javafx.application.Application;
-import javafx.beans.property.SimpleStringProperty;
+import javafx.application.Platform;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
@@ -14,117 +16,275 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.Instant;
-import java.time.ZoneId;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class Main extends Application {
 
+    private static final Logger logger = Logger.getLogger(Main.class.getName());
+
     private TaskController taskController;
+
+    // Rows per read when saving all tasks to a text file
+    private static final int SAVE_PAGE_SIZE = 1000;
     private TableView<Task> taskTable;
     private ObservableList<Task> tasks;
-    private Connection connection;
+
+    // Cell values reused across renders so scrolling and refresh() do not allocate per cell
+    private final TaskCellValues cellValues = new TaskCellValues();
+
+    // Busy state for database work running off the JavaFX thread (only touched on the FX thread)
+    private final Set<CompletableFuture<Void>> runningWork = new HashSet<>();
+    private ProgressIndicator busyIndicator;
+    private Label statusLabel;
+    private Button cancelButton;
+
+    // Due/overdue notifications; the badge is refreshed at most once per pending FX pulse
+    private final DeadlineScheduler deadlineScheduler = new DeadlineScheduler();
+    private Label deadlineBadge;
+    private final AtomicBoolean deadlineBadgePending = new AtomicBoolean();
 
     public static void main(String[] args) {
-        // Ensure invalid tasks are deleted on startup
-        deleteInvalidTasks();
+        // Maintenance command: rebuild the full-text search index and exit without starting the UI
+        if (args.length > 0 && args[0].equals("--rebuild-search-index")) {
+            try {
+                TaskSearch.rebuildIndex();
+            } catch (SQLException e) {
+                e.printStackTrace();
+                System.exit(1);
+            } finally {
+                DatabaseHelper.shutdown();
+            }
+            return;
+        }
+        // Maintenance command: import a CSV or JSON lines file and exit (rerun to resume after a failure)
+        if (args.length > 1 && args[0].equals("--import")) {
+            try {
+                TaskImporter.ImportResult result = new TaskImporter().importFile(Path.of(args[1]),
+                        (imported, rejected, rowsPerSecond) -> System.out.printf(
+                                "Imported %d, rejected %d (%.0f rows/s)%n", imported, rejected, rowsPerSecond));
+                System.out.println(result);
+                if (result.getRejectsFile() != null) {
+                    System.out.println("Rejected records written to " + result.getRejectsFile());
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+                System.exit(1);
+            } finally {
+                DatabaseHelper.shutdown();
+            }
+            return;
+        }
         launch(args);
     }
 
     @Override
     public void start(Stage primaryStage) {
-        try {
-            // Step 1: Establish the database connection
-            connection = DatabaseHelper.getConnection();
-            DatabaseHelper.checkAndAddMissingColumns(connection);
-
-            // Initialize the task controller and observable list
-            taskController = new TaskController();
-            tasks = taskController.getTaskObservableList();
-
-            // Initialize TableView
-            taskTable = new TableView<>();
-            taskTable.setItems(tasks);
-            taskTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
-
-            // Define and add columns to the TableView
-            addTableColumns();
-
-            // Load tasks from the database
-            taskController.loadTasks();
-
-            // Buttons for actions
-            Button addButton = new Button("Add Task");
-            addButton.setOnAction(event -> showAddTaskDialog());
-
-            Button editButton = new Button("Edit Task");
-            editButton.setOnAction(event -> showEditTaskDialog());
-
-            Button deleteButton = new Button("Delete Task");
-            deleteButton.setOnAction(event -> deleteSelectedTask());
-
-            Button viewButton = new Button("View Task");
-            viewButton.setOnAction(event -> showViewTaskDialog());
-
-            Button exportButton = new Button("Export to CSV");
-            exportButton.setOnAction(event -> exportToCSV());
+        // Initialize the task controller and observable list
+        taskController = new TaskController();
+        taskController.setDeadlineScheduler(deadlineScheduler);
+        deadlineScheduler.addListener(DeadlineScheduler.loggingListener());
+        deadlineScheduler.addListener(event -> {
+            if (deadlineBadgePending.compareAndSet(false, true)) {
+                Platform.runLater(this::updateDeadlineBadge);
+            }
+        });
+        tasks = taskController.getTaskObservableList();
 
-            Button saveToFileButton = new Button("Save Tasks to File");
-            saveToFileButton.setOnAction(event -> saveTasksToFile());
+        // Initialize TableView
+        taskTable = new TableView<>();
+        taskTable.setItems(tasks);
+        taskTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
 
-            // Layout for buttons
-            HBox buttonBox = new HBox(10, addButton, editButton, deleteButton, viewButton, exportButton, saveToFileButton);
-            buttonBox.setPadding(new Insets(10));
-            buttonBox.setStyle("-fx-alignment: center;");
+        // Define and add columns to the TableView
+        addTableColumns();
+
+        // Fetch further pages as the user scrolls (the scroll bar exists once the skin does)
+        taskTable.skinProperty().addListener((observable, oldSkin, newSkin) -> Platform.runLater(this::installLazyPaging));
+
+        // Buttons for actions
+        Button addButton = new Button("Add Task");
+        addButton.setOnAction(event -> showAddTaskDialog());
+
+        Button editButton = new Button("Edit Task");
+        editButton.setOnAction(event -> showEditTaskDialog());
+
+        Button deleteButton = new Button("Delete Task");
+        deleteButton.setOnAction(event -> deleteSelectedTask());
+
+        Button viewButton = new Button("View Task");
+        viewButton.setOnAction(event -> showViewTaskDialog());
+
+        Button exportButton = new Button("Export to CSV");
+        exportButton.setOnAction(event -> exportToCSV());
+
+        Button saveToFileButton = new Button("Save Tasks to File");
+        saveToFileButton.setOnAction(event -> saveTasksToFile());
+
+        Button importButton = new Button("Import Tasks");
+        importButton.setOnAction(event -> importTasks());
+
+        // Layout for buttons
+        HBox buttonBox = new HBox(10, addButton, editButton, deleteButton, viewButton, exportButton, saveToFileButton, importButton);
+        buttonBox.setPadding(new Insets(10));
+        buttonBox.setStyle("-fx-alignment: center;");
+
+        // Status bar showing background database work
+        busyIndicator = new ProgressIndicator();
+        busyIndicator.setMaxSize(18, 18);
+        busyIndicator.setVisible(false);
+        statusLabel = new Label("Ready");
+        cancelButton = new Button("Cancel");
+        cancelButton.setDisable(true);
+        cancelButton.setOnAction(event -> cancelRunningWork());
+        deadlineBadge = new Label();
+        deadlineBadge.setVisible(false);
+        HBox statusBox = new HBox(10, busyIndicator, statusLabel, cancelButton, deadlineBadge);
+        statusBox.setStyle("-fx-alignment: center-left;");
+
+        // Main layout with TableView, buttons and status bar
+        VBox layout = new VBox(10, taskTable, buttonBox, statusBox);
+        layout.setPadding(new Insets(10));
+        VBox.setVgrow(taskTable, Priority.ALWAYS);
+
+        // Scene and styling
+        Scene scene = new Scene(layout, 800, 600);
+        scene.getStylesheets().add(getClass().getResource("/Style.css").toExternalForm());
+
+        // Show the tasks saved at the last shutdown straight away; the database confirms them below
+        TaskSnapshot snapshot = TaskSnapshot.isEnabled() ? TaskSnapshot.read(TaskSnapshot.defaultPath()) : null;
+        if (snapshot != null) {
+            taskController.restoreSnapshot(snapshot);
+            logger.info("Restored " + snapshot.getTasks().size() + " task(s) from " + TaskSnapshot.defaultPath());
+        }
 
-            // Main layout with TableView and buttons
-            VBox layout = new VBox(10, taskTable, buttonBox);
-            layout.setPadding(new Insets(10));
-            VBox.setVgrow(taskTable, Priority.ALWAYS);
+        primaryStage.setTitle("HOME CHORES !!");
+        primaryStage.setScene(scene);
+        primaryStage.show();
+
+        // Clean up, migrate and load in the background so the window renders immediately.
+        // A restored snapshot is only reloaded if the table has changed since it was written.
+        runInBackground("Loading tasks...", "Database Connection Error", () -> {
+            DatabaseHelper.initializeSchema();
+            taskController.getTaskService().deleteInvalidTasks();
+            if (snapshot == null || !taskController.isInSync()) {
+                taskController.loadFirstPage();
+            }
+            deadlineScheduler.start();
+        }, () -> { });
+    }
 
-            // Scene and styling
-            Scene scene = new Scene(layout, 800, 600);
-            scene.getStylesheets().add(getClass().getResource("/Style.css").toExternalForm());
+    private void updateDeadlineBadge() {
+        deadlineBadgePending.set(false);
+        int due = deadlineScheduler.getDueCount();
+        deadlineBadge.setText(due + " task(s) due");
+        deadlineBadge.setVisible(due > 0);
+    }
 
-            primaryStage.setTitle("HOME CHORES !!");
-            primaryStage.setScene(scene);
-            primaryStage.show();
+    private void installLazyPaging() {
+        for (Node node : taskTable.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar scrollBar && scrollBar.getOrientation() == Orientation.VERTICAL) {
+                scrollBar.valueProperty().addListener((observable, oldValue, newValue) -> {
+                    // Near the bottom of what is loaded: fetch the next page
+                    if (newValue.doubleValue() >= scrollBar.getMax() * 0.9) {
+                        loadNextPage();
+                    }
+                });
+            }
+        }
+    }
 
-        } catch (SQLException e) {
-            showError("Database Connection Error", "Failed to connect to the database: " + e.getMessage());
+    private void loadNextPage() {
+        if (taskController.hasMorePages() && !taskController.isLoadingPage()) {
+            runInBackground("Loading more tasks...", "Error Loading Tasks", taskController::loadNextPage, () -> { });
         }
     }
 
     @Override
     public void stop() throws Exception {
-        DatabaseHelper.closeConnection(connection);
+        cancelRunningWork();
+        if (TaskSnapshot.isEnabled()) {
+            try {
+                taskController.writeSnapshot(TaskSnapshot.defaultPath());
+            } catch (IOException | SQLException e) {
+                logger.log(Level.WARNING, "Could not save the task snapshot: " + e.getMessage(), e);
+            }
+        }
+        deadlineScheduler.close();
+        DatabaseExecutor.shutdown();
+        DatabaseHelper.shutdown();
         super.stop();
     }
 
+    // Runs database work on a virtual thread while the status bar shows it as busy.
+    // onSuccess (and any error dialog) runs back on the JavaFX thread via Platform.runLater.
+    private void runInBackground(String status, String errorTitle, DatabaseExecutor.Work work, Runnable onSuccess) {
+        CompletableFuture<Void> future = DatabaseExecutor.run(work);
+        runningWork.add(future);
+        updateBusyState(status);
+
+        future.whenComplete((ignored, error) -> Platform.runLater(() -> {
+            runningWork.remove(future);
+            updateBusyState(future.isCancelled() ? "Cancelled." : null);
+            if (future.isCancelled()) {
+                return;
+            }
+            if (error != null) {
+                showError(errorTitle, error.getMessage());
+            } else {
+                onSuccess.run();
+            }
+        }));
+    }
+
+    private void cancelRunningWork() {
+        for (CompletableFuture<Void> future : new ArrayList<>(runningWork)) {
+            future.cancel(true);
+        }
+    }
+
+    private void updateBusyState(String status) {
+        boolean busy = !runningWork.isEmpty();
+        busyIndicator.setVisible(busy);
+        cancelButton.setDisable(!busy);
+        if (status != null) {
+            statusLabel.setText(status);
+        } else if (!busy) {
+            statusLabel.setText("Ready");
+        }
+    }
+
     private void addTableColumns() {
         // Define and add columns to the TableView
         TableColumn<Task, String> nameColumn = new TableColumn<>("Task Name");
-        nameColumn.setCellValueFactory(param -> new SimpleStringProperty(param.getValue().getTaskName()));
+        nameColumn.setCellValueFactory(param -> cellValues.taskName(param.getValue()));
         nameColumn.setPrefWidth(150);
 
         TableColumn<Task, String> categoryColumn = new TableColumn<>("Category");
-        categoryColumn.setCellValueFactory(param -> new SimpleStringProperty(param.getValue().getCategory()));
+        categoryColumn.setCellValueFactory(param -> cellValues.category(param.getValue()));
         categoryColumn.setPrefWidth(150);
 
         TableColumn<Task, String> descriptionColumn = new TableColumn<>("Description");
-        descriptionColumn.setCellValueFactory(param -> new SimpleStringProperty(param.getValue().getDescription()));
+        descriptionColumn.setCellValueFactory(param -> cellValues.description(param.getValue()));
         descriptionColumn.setPrefWidth(200);
 
         TableColumn<Task, String> createdAtColumn = new TableColumn<>("Created At");
-        createdAtColumn.setCellValueFactory(param -> new SimpleStringProperty(param.getValue().getCreatedAt().toString()));
+        createdAtColumn.setCellValueFactory(param -> cellValues.createdAt(param.getValue()));
         createdAtColumn.setPrefWidth(150);
 
         TableColumn<Task, String> deadlineColumn = new TableColumn<>("Deadline");
-        deadlineColumn.setCellValueFactory(param -> {
-            LocalDateTime deadline = param.getValue().getDeadline();
-            return new SimpleStringProperty(deadline != null ? deadline.toString() : "No Deadline");
-        });
+        deadlineColumn.setCellValueFactory(param -> cellValues.deadline(param.getValue()));
         deadlineColumn.setPrefWidth(150);
 
         // Add all columns to the TableView
@@ -168,14 +328,8 @@ public class Main extends Application {
 
                 Task newTask = new Task(taskName, category, description, completed, LocalDateTime.now(), deadline);
 
-                try {
-                    taskController.addTask(newTask);  // Add task to the database
-                    taskController.loadTasks();  // Reload tasks to update the TableView
-                    taskTable.setItems(taskController.getTaskObservableList());
-                    taskTable.refresh();  // Force refresh of TableView
-                } catch (Exception e) {
-                    showError("Error adding task", e.getMessage());
-                }
+                // Add task to the database and insert it into the TableView
+                runInBackground("Adding task...", "Error adding task", () -> taskController.addTask(newTask), () -> { });
             }
             return null;
         });
@@ -195,15 +349,10 @@ public class Main extends Application {
 
                 confirmation.showAndWait().ifPresent(response -> {
                     if (response == ButtonType.OK) {
-                        try {
-                            taskController.deleteTask(taskId);  // Delete task from the database
-                            taskController.loadTasks();  // Reload tasks to update the TableView
-                            taskTable.setItems(taskController.getTaskObservableList());
-                            taskTable.refresh();  // Force refresh of TableView
-                            showInfo("Task Deleted", "Task successfully deleted.");
-                        } catch (Exception e) {
-                            showError("Error Deleting Task", "An error occurred while deleting the task: " + e.getMessage());
-                        }
+                        // Delete task from the database and the TableView
+                        runInBackground("Deleting task...", "Error Deleting Task",
+                                () -> taskController.deleteTask(taskId),
+                                () -> showInfo("Task Deleted", "Task successfully deleted."));
                     }
                 });
             } else {
@@ -218,13 +367,13 @@ public class Main extends Application {
         Task selectedTask = taskTable.getSelectionModel().getSelectedItem();
         if (selectedTask != null) {
             String deadline = (selectedTask.getDeadline() != null)
-                    ? selectedTask.getDeadline().toString()
+                    ? TaskCellValues.format(selectedTask.getDeadline())
                     : "No Deadline";
 
             String message = "Task Name: " + selectedTask.getTaskName() + "\n" +
                     "Category: " + selectedTask.getCategory() + "\n" +
                     "Description: " + selectedTask.getDescription() + "\n" +
-                    "Created At: " + selectedTask.getCreatedAt() + "\n" +
+                    "Created At: " + TaskCellValues.format(selectedTask.getCreatedAt()) + "\n" +
                     "Deadline: " + deadline + "\n" +
                     "Completed: " + (selectedTask.isCompleted() ? "Yes" : "No");
 
@@ -272,26 +421,29 @@ public class Main extends Application {
             // Set the result converter
             dialog.setResultConverter(dialogButton -> {
                 if (dialogButton == saveButton) {
-                    // Update the selected task with the new values
-                    selectedTask.setTaskName(taskNameField.getText());
-                    selectedTask.setCategory(categoryField.getText());
-                    selectedTask.setDescription(descriptionField.getText());
-                    selectedTask.setDeadline(deadlinePicker.getValue() != null
-                            ? deadlinePicker.getValue().atStartOfDay()
-                            : null);
-                    selectedTask.setCompleted(completedCheckBox.isSelected());
-
-                    try {
-                        // Update the task in the database
-                        taskController.updateTask(selectedTask);
-                        // Reload the tasks from the database
-                        taskController.loadTasks();
-                        // Refresh the TableView with the updated data
-                        taskTable.setItems(taskController.getTaskObservableList());
-                        taskTable.refresh();  // Force refresh of TableView
-                    } catch (Exception e) {
-                        showError("Error Updating Task", e.getMessage());
+                    // Keep the task as shown, so edits made elsewhere meanwhile can be merged with ours
+                    Task original = new Task(selectedTask);
+
+                    // Edit a copy: the listed task stays untouched (the table may be drawing it) until
+                    // the save succeeds. Setters only mark fields that really changed, and the save
+                    // writes just those columns.
+                    Task edited = new Task(selectedTask);
+                    edited.setTaskName(taskNameField.getText());
+                    edited.setCategory(editedText(original.getCategory(), categoryField.getText()));
+                    edited.setDescription(editedText(original.getDescription(), descriptionField.getText()));
+                    LocalDate pickedDeadline = deadlinePicker.getValue();
+                    if (pickedDeadline == null) {
+                        edited.setDeadline(null);
+                    } else if (original.getDeadline() == null || !pickedDeadline.equals(original.getDeadline().toLocalDate())) {
+                        // The picker has no time of day: an unchanged date keeps the original time
+                        edited.setDeadline(pickedDeadline.atStartOfDay());
                     }
+                    edited.setCompleted(completedCheckBox.isSelected());
+
+                    // Update the task in the database; on success the controller swaps the edited
+                    // copy into the list (or the latest stored row, if the edit conflicts)
+                    runInBackground("Updating task...", "Error Updating Task",
+                            () -> taskController.updateTask(original, edited), () -> { });
                 }
                 return null;
             });
@@ -309,93 +461,87 @@ public class Main extends Application {
         File file = fileChooser.showSaveDialog(null);
 
         if (file != null) {
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-                // Write the header to the file
-                writer.write("ID | Task Name | Category | Description | Created At | Deadline | Completed\n");
-                writer.write("------------------------------------------------------------\n");
-
-                // Retrieve tasks from the database and write them to the text file
-                try (Statement stmt = connection.createStatement()) {
-                    String query = "SELECT * FROM tasks";
-                    ResultSet rs = stmt.executeQuery(query);
-
-                    while (rs.next()) {
-                        int id = rs.getInt("id");
-                        String taskName = rs.getString("task_name");
-                        String category = rs.getString("category");
-                        String description = rs.getString("description");
-                        long createdAtMillis = rs.getLong("created_at"); // Get long value (Unix timestamp in milliseconds)
-                        long deadlineMillis = rs.getLong("deadline");  // Get long value (Unix timestamp in milliseconds)
-                        boolean completed = rs.getBoolean("completed");
-
-                        // Convert Unix timestamps to LocalDateTime
-                        String createdAtStr = (createdAtMillis > 0) ? Instant.ofEpochMilli(createdAtMillis).atZone(ZoneId.systemDefault()).toLocalDateTime().toString() : "N/A";
-                        String deadlineStr = (deadlineMillis > 0) ? Instant.ofEpochMilli(deadlineMillis).atZone(ZoneId.systemDefault()).toLocalDateTime().toString() : "N/A";
-
-                        // Format the task and write it to the file
-                        String taskLine = String.format("%d | %s | %s | %s | %s | %s | %s\n",
-                                id,
-                                taskName,
-                                category != null ? category : "N/A",
-                                description != null ? description : "N/A",
-                                createdAtStr,
-                                deadlineStr,
-                                completed ? "Yes" : "No");
-
-                        writer.write(taskLine);
-                    }
+            TaskService taskService = taskController.getTaskService();
+            runInBackground("Saving tasks to file...", "Save Failed", () -> writeTasksToFile(taskService, file),
+                    () -> showInfo("Save Successful", "Tasks have been successfully saved to the file."));
+        }
+    }
+
+    // Writes every task in the database to a text file (runs off the JavaFX thread).
+    // Tasks are read a page at a time, so memory stays flat however large the table is.
+    private static void writeTasksToFile(TaskService taskService, File file) throws IOException, SQLException, InterruptedException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            // Write the header to the file
+            writer.write("ID | Task Name | Category | Description | Created At | Deadline | Completed\n");
+            writer.write("------------------------------------------------------------\n");
+
+            // Retrieve tasks from the database and write them to the text file
+            TaskPage page = null;
+            do {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException("Save cancelled.");
+                }
+                page = taskService.getTasksPage(page != null ? page.getNextCursor() : null,
+                        SAVE_PAGE_SIZE, TaskPage.Sort.OLDEST_FIRST);
 
-                    // Notify user that the tasks have been saved successfully
-                    showInfo("Save Successful", "Tasks have been successfully saved to the file.");
+                for (Task task : page.getTasks()) {
+                    String createdAtStr = task.getCreatedAt() != null ? task.getCreatedAt().toString() : "N/A";
+                    String deadlineStr = task.getDeadline() != null ? task.getDeadline().toString() : "N/A";
 
-                } catch (SQLException e) {
-                    showError("Database Error", "An error occurred while retrieving tasks: " + e.getMessage());
+                    // Format the task and write it to the file
+                    String taskLine = String.format("%d | %s | %s | %s | %s | %s | %s\n",
+                            task.getId(),
+                            task.getTaskName(),
+                            task.getCategory() != null ? task.getCategory() : "N/A",
+                            task.getDescription() != null ? task.getDescription() : "N/A",
+                            createdAtStr,
+                            deadlineStr,
+                            task.isCompleted() ? "Yes" : "No");
+
+                    writer.write(taskLine);
                 }
-            } catch (IOException e) {
-                showError("File Error", "An error occurred while saving the file: " + e.getMessage());
-            }
+            } while (page.hasMore());
         }
     }
 
-
-
     private void exportToCSV() {
         FileChooser fileChooser = new FileChooser();
-        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV Files", "*.csv"));
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV Files", "*.csv"),
+                new FileChooser.ExtensionFilter("Gzipped CSV Files", "*.csv.gz"));
         File file = fileChooser.showSaveDialog(null);
 
         if (file != null) {
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-                // Write header
-                writer.write("Task Name, Category, Description, Created At, Deadline, Completed\n");
-
-                // Write task data
-                for (Task task : taskTable.getItems()) {
-                    writer.write(String.format("\"%s\", \"%s\", \"%s\", \"%s\", \"%s\", \"%s\"\n",
-                            task.getTaskName(),
-                            task.getCategory(),
-                            task.getDescription(),
-                            task.getCreatedAt(),
-                            task.getDeadline(),
-                            task.isCompleted() ? "Yes" : "No"));
-                }
-
-                showInfo("Export Successful", "Tasks have been successfully exported to CSV.");
-
-            } catch (IOException e) {
-                showError("Export Failed", "An error occurred while exporting tasks: " + e.getMessage());
-            }
+            // Streams every task in the database, not just the loaded pages
+            boolean gzip = file.getName().endsWith(".gz");
+            runInBackground("Exporting to CSV...", "Export Failed",
+                    () -> new CsvExporter().export(file.toPath(), gzip, (written, total) ->
+                            Platform.runLater(() -> statusLabel.setText("Exporting to CSV... " + written + " / " + total + " tasks"))),
+                    () -> showInfo("Export Successful", "Tasks have been successfully exported to CSV."));
         }
     }
 
-    // Helper method to delete invalid tasks at startup
-    private static void deleteInvalidTasks() {
-        try (Connection conn = DatabaseHelper.getConnection();
-             Statement stmt = conn.createStatement()) {
-            String sql = "DELETE FROM tasks WHERE id IS NULL OR task_name IS NULL OR task_name = ''";
-            stmt.executeUpdate(sql);
-        } catch (SQLException e) {
-            e.printStackTrace();
+    private void importTasks() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV or JSON Lines Files", "*.csv", "*.csv.gz", "*.jsonl", "*.jsonl.gz", "*.ndjson"));
+        File file = fileChooser.showOpenDialog(null);
+
+        if (file != null) {
+            AtomicReference<TaskImporter.ImportResult> result = new AtomicReference<>();
+            runInBackground("Importing tasks...", "Import Failed", () -> {
+                result.set(taskController.getTaskService().importFile(file.toPath(), (imported, rejected, rowsPerSecond) ->
+                        Platform.runLater(() -> statusLabel.setText(String.format(
+                                "Importing tasks... %d imported, %d rejected (%.0f rows/s)", imported, rejected, rowsPerSecond)))));
+                taskController.loadFirstPage();
+            }, () -> {
+                TaskImporter.ImportResult imported = result.get();
+                String message = "Imported " + imported.getImported() + " task(s).";
+                if (imported.getRejectsFile() != null) {
+                    message += "\n" + imported.getRejected() + " record(s) were rejected; see " + imported.getRejectsFile() + ".";
+                }
+                showInfo("Import Complete", message);
+            });
         }
     }
 
@@ -407,6 +553,11 @@ public class Main extends Application {
         alert.showAndWait();
     }
 
+    // A text field shows null as empty; leaving it empty keeps the null rather than counting as an edit
+    private static String editedText(String original, String text) {
+        return original == null && text.isEmpty() ? null : text;
+    }
+
     private void showError(String title, String message) {
         Alert alert = new Alert(Alert.AlertType.ERROR);
         alert.setTitle(title);
@@ -0,0 +1,296 @@
+package org.example;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Versioned schema migrations for tasks.db. The applied version is kept in
+ * {@code PRAGMA user_version}; each step runs once, in its own transaction, and
+ * an up-to-date database costs a single pragma read on startup.
+ */
+public final class SchemaMigrator {
+    private static final Logger logger = Logger.getLogger(SchemaMigrator.class.getName());
+
+    private static final List<Migration> MIGRATIONS = new ArrayList<>();
+
+    static {
+        // 1: base table. Databases created before versioning may lack created_at/deadline.
+        add(1, "Create tasks table", connection -> {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS tasks (" +
+                        "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                        "task_name TEXT NOT NULL," +
+                        "category TEXT," +
+                        "description TEXT," +
+                        "completed BOOLEAN," +
+                        "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                        "deadline TIMESTAMP" +
+                        ")");
+            }
+            Set<String> columns = columnNames(connection, "tasks");
+            if (!columns.contains("created_at")) {
+                try (Statement stmt = connection.createStatement()) {
+                    // ALTER TABLE cannot add a column with a non-constant default; backfill instead
+                    stmt.executeUpdate("ALTER TABLE tasks ADD COLUMN created_at TIMESTAMP");
+                    stmt.executeUpdate("UPDATE tasks SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL");
+                }
+            }
+            if (!columns.contains("deadline")) {
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.executeUpdate("ALTER TABLE tasks ADD COLUMN deadline TIMESTAMP");
+                }
+            }
+        });
+
+        // 2: indexes for the default sort/paging order and the common filters
+        add(2, "Add task indexes", connection -> {
+            try (Statement stmt = connection.createStatement()) {
+                createTaskIndexes(stmt);
+                stmt.executeUpdate("ANALYZE tasks");
+            }
+        });
+
+        // 3: FTS5 index over task_name/description, kept in sync with tasks by triggers
+        add(3, "Add full-text search index", connection -> {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate("CREATE VIRTUAL TABLE IF NOT EXISTS tasks_fts USING fts5(" +
+                        "task_name, description, content='tasks', content_rowid='id', prefix='2 3')");
+                createSearchTriggers(stmt);
+            }
+            TaskSearch.rebuildIndex(connection);
+        });
+
+        // 4: how far each import source got, committed together with its rows so imports can resume
+        add(4, "Add import progress table", connection -> {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS import_progress (" +
+                        "source TEXT PRIMARY KEY," +
+                        "fingerprint TEXT NOT NULL," +
+                        "records_done INTEGER NOT NULL DEFAULT 0," +
+                        "imported INTEGER NOT NULL DEFAULT 0," +
+                        "rejected INTEGER NOT NULL DEFAULT 0," +
+                        "completed BOOLEAN NOT NULL DEFAULT 0," +
+                        "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                        ")");
+            }
+        });
+
+        // 5: store created_at/deadline as INTEGER epoch millis (TimestampCodec). Older rows hold
+        // CURRENT_TIMESTAMP text, JDBC millis or millis as text. SQLite cannot change a column's
+        // type or default in place, so the table is rebuilt; ids, and with them the FTS rows, are kept.
+        add(5, "Store timestamps as epoch milliseconds", connection -> {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate("CREATE TABLE tasks_new (" +
+                        "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                        "task_name TEXT NOT NULL," +
+                        "category TEXT," +
+                        "description TEXT," +
+                        "completed BOOLEAN," +
+                        "created_at INTEGER DEFAULT (CAST(ROUND((julianday('now') - 2440587.5) * 86400000) AS INTEGER))," +
+                        "deadline INTEGER" +
+                        ")");
+                stmt.executeUpdate("INSERT INTO tasks_new (id, task_name, category, description, completed, created_at, deadline) " +
+                        "SELECT id, task_name, category, description, completed, " +
+                        epochMillis("created_at") + ", " + epochMillis("deadline") + " FROM tasks");
+                // Keep the AUTOINCREMENT high-water mark so ids of deleted tasks are not reused
+                stmt.executeUpdate("DELETE FROM sqlite_sequence WHERE name = 'tasks_new'");
+                stmt.executeUpdate("INSERT INTO sqlite_sequence (name, seq) SELECT 'tasks_new', seq FROM sqlite_sequence WHERE name = 'tasks'");
+                stmt.executeUpdate("DROP TABLE tasks");
+                stmt.executeUpdate("ALTER TABLE tasks_new RENAME TO tasks");
+                createTaskIndexes(stmt);
+                createSearchTriggers(stmt);
+                stmt.executeUpdate("ANALYZE tasks");
+            }
+        });
+
+        // 6: TaskQuery filters by status or category and sorts newest first; composite indexes
+        // serve both without a temporary sort and replace the single-column ones
+        add(6, "Add composite filter indexes", connection -> {
+            try (Statement stmt = connection.createStatement()) {
+                createTaskIndexes(stmt);
+                stmt.executeUpdate("DROP INDEX IF EXISTS idx_tasks_completed");
+                stmt.executeUpdate("DROP INDEX IF EXISTS idx_tasks_category");
+                stmt.executeUpdate("ANALYZE tasks");
+            }
+        });
+
+        // 7: outbox for TaskEventBus; a change and its event commit in the same transaction.
+        // Snapshots are stored column by column, a NULL task_name meaning no snapshot.
+        add(7, "Add task event outbox", connection -> {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS task_outbox (" +
+                        "seq INTEGER PRIMARY KEY AUTOINCREMENT," +
+                        "type TEXT NOT NULL," +
+                        "task_id INTEGER NOT NULL," +
+                        "recorded_at INTEGER NOT NULL," +
+                        snapshotColumns("before") + "," +
+                        snapshotColumns("after") +
+                        ")");
+            }
+        });
+
+        // 8: row versions for optimistic concurrency between app instances. The DAO bumps the
+        // version itself and compares it on update; the trigger bumps it for any other writer
+        // (older builds, scripts) so their changes are never mistaken for unchanged rows.
+        add(8, "Add task row versions", connection -> {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate("ALTER TABLE tasks ADD COLUMN version INTEGER NOT NULL DEFAULT 1");
+                stmt.executeUpdate("CREATE TRIGGER IF NOT EXISTS tasks_version_au AFTER UPDATE ON tasks " +
+                        "WHEN new.version = old.version BEGIN " +
+                        "UPDATE tasks SET version = old.version + 1 WHERE id = new.id; END");
+            }
+        });
+
+        // 9: a counter every change to tasks bumps, whoever makes it; lets a saved view
+        // (TaskSnapshot) prove it still matches the table without reading the table
+        add(9, "Add task change counter", connection -> {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS task_changes (" +
+                        "id INTEGER PRIMARY KEY CHECK (id = 1)," +
+                        "counter INTEGER NOT NULL" +
+                        ")");
+                stmt.executeUpdate("INSERT OR IGNORE INTO task_changes (id, counter) VALUES (1, 0)");
+                for (String event : new String[] {"INSERT", "UPDATE", "DELETE"}) {
+                    stmt.executeUpdate("CREATE TRIGGER IF NOT EXISTS tasks_changes_" + event.toLowerCase() +
+                            " AFTER " + event + " ON tasks BEGIN " +
+                            "UPDATE task_changes SET counter = counter + 1 WHERE id = 1; END");
+                }
+            }
+        });
+    }
+
+    private SchemaMigrator() {
+    }
+
+    private static void createTaskIndexes(Statement stmt) throws SQLException {
+        stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_tasks_created_at_id ON tasks (created_at, id)");
+        stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_tasks_completed_created_at ON tasks (completed, created_at, id)");
+        stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_tasks_category_created_at ON tasks (category, created_at, id)");
+        stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_tasks_deadline ON tasks (deadline) WHERE deadline IS NOT NULL");
+    }
+
+    private static void createSearchTriggers(Statement stmt) throws SQLException {
+        stmt.executeUpdate("CREATE TRIGGER IF NOT EXISTS tasks_fts_ai AFTER INSERT ON tasks BEGIN " +
+                "INSERT INTO tasks_fts (rowid, task_name, description) VALUES (new.id, new.task_name, new.description); END");
+        stmt.executeUpdate("CREATE TRIGGER IF NOT EXISTS tasks_fts_ad AFTER DELETE ON tasks BEGIN " +
+                "INSERT INTO tasks_fts (tasks_fts, rowid, task_name, description) VALUES ('delete', old.id, old.task_name, old.description); END");
+        stmt.executeUpdate("CREATE TRIGGER IF NOT EXISTS tasks_fts_au AFTER UPDATE OF task_name, description ON tasks BEGIN " +
+                "INSERT INTO tasks_fts (tasks_fts, rowid, task_name, description) VALUES ('delete', old.id, old.task_name, old.description); " +
+                "INSERT INTO tasks_fts (rowid, task_name, description) VALUES (new.id, new.task_name, new.description); END");
+    }
+
+    private static String snapshotColumns(String prefix) {
+        return prefix + "_task_name TEXT," +
+                prefix + "_category TEXT," +
+                prefix + "_description TEXT," +
+                prefix + "_completed BOOLEAN," +
+                prefix + "_created_at INTEGER," +
+                prefix + "_deadline INTEGER";
+    }
+
+    // SQL turning a stored timestamp into epoch millis: numbers are kept (values below 1e11 are
+    // taken as seconds), digit strings are cast, and date texts - CURRENT_TIMESTAMP writes UTC -
+    // go through julianday(). Anything unparseable becomes NULL.
+    private static String epochMillis(String column) {
+        return "CASE" +
+                " WHEN " + column + " IS NULL THEN NULL" +
+                " WHEN typeof(" + column + ") IN ('integer', 'real') OR (trim(" + column + ") <> '' AND trim(" + column + ") NOT GLOB '*[^0-9]*')" +
+                " THEN CASE WHEN CAST(" + column + " AS INTEGER) < 100000000000 THEN CAST(" + column + " AS INTEGER) * 1000 ELSE CAST(" + column + " AS INTEGER) END" +
+                " WHEN julianday(" + column + ") IS NOT NULL THEN CAST(ROUND((julianday(" + column + ") - 2440587.5) * 86400000) AS INTEGER)" +
+                " ELSE NULL END";
+    }
+
+    // Version the schema will be at after migrate()
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    // Method to read the schema version recorded in the database
+    public static int currentVersion(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    // Method to apply every migration newer than the database's version; returns the number applied
+    public static int migrate(Connection connection) throws SQLException {
+        int current = currentVersion(connection);
+        if (current >= latestVersion()) {
+            return 0;
+        }
+
+        int applied = 0;
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version <= current) {
+                    continue;
+                }
+                try {
+                    migration.step.apply(connection);
+                    try (Statement stmt = connection.createStatement()) {
+                        stmt.executeUpdate("PRAGMA user_version = " + migration.version);
+                    }
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    logger.log(Level.SEVERE, "Schema migration " + migration.version + " (" + migration.description
+                            + ") failed: " + e.getMessage(), e);
+                    throw e;
+                }
+                logger.info("Applied schema migration " + migration.version + ": " + migration.description);
+                applied++;
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        return applied;
+    }
+
+    // Column names of a table (only used by migration steps, never on an up-to-date database)
+    static Set<String> columnNames(Connection connection, String table) throws SQLException {
+        Set<String> columns = new HashSet<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                columns.add(rs.getString("name"));
+            }
+        }
+        return Collections.unmodifiableSet(columns);
+    }
+
+    private static void add(int version, String description, MigrationStep step) {
+        if (!MIGRATIONS.isEmpty() && MIGRATIONS.get(MIGRATIONS.size() - 1).version >= version) {
+            throw new IllegalStateException("Migrations must be registered in increasing version order.");
+        }
+        MIGRATIONS.add(new Migration(version, description, step));
+    }
+
+    @FunctionalInterface
+    private interface MigrationStep {
+        void apply(Connection connection) throws SQLException;
+    }
+
+    private static final class Migration {
+        private final int version;
+        private final String description;
+        private final MigrationStep step;
+
+        private Migration(int version, String description, MigrationStep step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package org.example;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * LRU cache of prepared statements for one physical connection, keyed by SQL text.
+ * Statements handed out are proxies whose close() keeps the statement prepared
+ * for the next caller, so SQLite skips the parse/plan step on repeated SQL.
+ * Not thread-safe: a pooled connection is only ever used by one borrower at a time.
+ */
+public class StatementCache {
+    private static final Logger logger = Logger.getLogger(StatementCache.class.getName());
+
+    private final Connection connection;
+    private final int capacity;
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    // Counters are shared by every cache in a pool
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    public StatementCache(Connection connection, int capacity, LongAdder hits, LongAdder misses, LongAdder evictions) {
+        this.connection = connection;
+        this.capacity = capacity;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() > StatementCache.this.capacity && !eldest.getValue().inUse) {
+                    StatementCache.this.evictions.increment();
+                    closeQuietly(eldest.getValue().statement);
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Method to prepare a statement, reusing a cached one for the same SQL when possible
+    public PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        if (capacity <= 0) {
+            misses.increment();
+            return connection.prepareStatement(sql, autoGeneratedKeys);
+        }
+
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : sql;
+        CachedStatement cached = statements.get(key);
+        if (cached != null && !cached.inUse && !cached.statement.isClosed()) {
+            hits.increment();
+            cached.inUse = true;
+            return cached.proxy;
+        }
+
+        misses.increment();
+        PreparedStatement statement = connection.prepareStatement(sql, autoGeneratedKeys);
+        if (cached != null && cached.inUse) {
+            // Same SQL already open by this borrower (nested use): hand out an uncached statement
+            return statement;
+        }
+        CachedStatement entry = new CachedStatement(statement);
+        entry.inUse = true;
+        statements.put(key, entry);
+        return entry.proxy;
+    }
+
+    // Method to close every cached statement (called when the physical connection is discarded)
+    public void closeAll() {
+        List<CachedStatement> all = new ArrayList<>(statements.values());
+        statements.clear();
+        for (CachedStatement cached : all) {
+            closeQuietly(cached.statement);
+        }
+    }
+
+    public int size() {
+        return statements.size();
+    }
+
+    // Rows an execute call reports having changed; -1 when it does not say (queries, execute())
+    private static long changedRows(Object result) {
+        if (result instanceof Integer count) {
+            return count;
+        }
+        if (result instanceof Long count) {
+            return count;
+        }
+        long rows = 0;
+        if (result instanceof int[] counts) {
+            for (int count : counts) {
+                rows += Math.max(count, 0);
+            }
+            return rows;
+        }
+        if (result instanceof long[] counts) {
+            for (long count : counts) {
+                rows += Math.max(count, 0);
+            }
+            return rows;
+        }
+        return -1;
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Error closing cached statement: " + e.getMessage(), e);
+        }
+    }
+
+    private static final class CachedStatement implements InvocationHandler {
+        private final PreparedStatement statement;
+        private final PreparedStatement proxy;
+        private boolean inUse;
+        // Last result set handed out, closed with the borrow so a forgotten one cannot keep the
+        // statement stepped (an open read transaction that blocks WAL checkpoints). Tracked here
+        // because sqlite-jdbc's getResultSet() refuses to return a result set already requested.
+        private ResultSet resultSet;
+
+        private CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (inUse) {
+                        inUse = false;
+                        if (resultSet != null) {
+                            ResultSet open = resultSet;
+                            resultSet = null;
+                            if (!open.isClosed()) {
+                                open.close();
+                            }
+                        }
+                        statement.clearParameters();
+                        statement.clearBatch();
+                    }
+                    return null;
+                case "isClosed":
+                    return !inUse || statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+
+            TaskMetrics.Sample sample = switch (method.getName()) {
+                case "executeQuery" -> TaskMetrics.DB_EXECUTE_QUERY.start();
+                case "execute", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch" ->
+                        TaskMetrics.DB_EXECUTE_UPDATE.start();
+                default -> null;
+            };
+            try {
+                Object result = method.invoke(statement, args);
+                if (result instanceof ResultSet rs) {
+                    resultSet = rs;
+                }
+                if (sample != null) {
+                    sample.stop(changedRows(result));
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                if (sample != null) {
+                    sample.fail();
+                }
+                throw e.getCause();
+            }
+        }
+    }
+}
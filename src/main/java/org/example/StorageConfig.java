@@ -0,0 +1,150 @@
+package org.example;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+/**
+ * SQLite storage settings applied to every pooled connection. A profile supplies
+ * the defaults and individual settings can be overridden with system properties:
+ * <pre>
+ *   -Dtasks.db.profile=balanced|durable|fast
+ *   -Dtasks.db.synchronous=OFF|NORMAL|FULL
+ *   -Dtasks.db.cacheSizeKib=16384
+ *   -Dtasks.db.mmapSizeBytes=268435456
+ *   -Dtasks.db.tempStore=DEFAULT|FILE|MEMORY
+ *   -Dtasks.db.walAutoCheckpointPages=1000
+ *   -Dtasks.db.checkpointSeconds=60
+ *   -Dtasks.db.writeBatchSize=64
+ * </pre>
+ * All profiles use WAL so readers never block the writer (or each other).
+ */
+public class StorageConfig {
+
+    public enum Profile {
+        // WAL + synchronous=NORMAL: durable across application crashes, may lose the last commits on power loss
+        BALANCED,
+        // synchronous=FULL: every commit survives power loss
+        DURABLE,
+        // synchronous=OFF and large caches: for imports and benchmarks on disposable data
+        FAST
+    }
+
+    private final Profile profile;
+    private final String synchronous;
+    private final int cacheSizeKib;
+    private final long mmapSizeBytes;
+    private final String tempStore;
+    private final int walAutoCheckpointPages;
+    private final int checkpointIntervalSeconds;
+    private final int writeBatchSize;
+
+    public StorageConfig(Profile profile, String synchronous, int cacheSizeKib, long mmapSizeBytes, String tempStore,
+                         int walAutoCheckpointPages, int checkpointIntervalSeconds, int writeBatchSize) {
+        this.profile = profile;
+        this.synchronous = checkOption(synchronous, "OFF", "NORMAL", "FULL", "EXTRA");
+        this.cacheSizeKib = cacheSizeKib;
+        this.mmapSizeBytes = mmapSizeBytes;
+        this.tempStore = checkOption(tempStore, "DEFAULT", "FILE", "MEMORY");
+        this.walAutoCheckpointPages = walAutoCheckpointPages;
+        this.checkpointIntervalSeconds = checkpointIntervalSeconds;
+        this.writeBatchSize = Math.max(1, writeBatchSize);
+    }
+
+    // Method to get the defaults of a profile
+    public static StorageConfig forProfile(Profile profile) {
+        switch (profile) {
+            case DURABLE:
+                return new StorageConfig(profile, "FULL", 8 * 1024, 0L, "DEFAULT", 1000, 30, 64);
+            case FAST:
+                return new StorageConfig(profile, "OFF", 64 * 1024, 1024L * 1024 * 1024, "MEMORY", 10000, 300, 256);
+            case BALANCED:
+            default:
+                return new StorageConfig(profile, "NORMAL", 16 * 1024, 256L * 1024 * 1024, "MEMORY", 1000, 60, 64);
+        }
+    }
+
+    // Method to build the configuration from -Dtasks.db.* system properties
+    public static StorageConfig fromSystemProperties() {
+        Profile profile = Profile.valueOf(System.getProperty("tasks.db.profile", "balanced").toUpperCase(Locale.ROOT));
+        StorageConfig defaults = forProfile(profile);
+        return new StorageConfig(
+                profile,
+                System.getProperty("tasks.db.synchronous", defaults.synchronous),
+                Integer.getInteger("tasks.db.cacheSizeKib", defaults.cacheSizeKib),
+                Long.getLong("tasks.db.mmapSizeBytes", defaults.mmapSizeBytes),
+                System.getProperty("tasks.db.tempStore", defaults.tempStore),
+                Integer.getInteger("tasks.db.walAutoCheckpointPages", defaults.walAutoCheckpointPages),
+                Integer.getInteger("tasks.db.checkpointSeconds", defaults.checkpointIntervalSeconds),
+                Integer.getInteger("tasks.db.writeBatchSize", defaults.writeBatchSize));
+    }
+
+    // Method to apply the settings to a freshly opened connection
+    public void apply(Connection connection, boolean readOnly) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            if (!readOnly) {
+                // Stored in the database file, so readers pick WAL up from the writer; a no-op once set
+                stmt.execute("PRAGMA journal_mode = WAL");
+                stmt.execute("PRAGMA wal_autocheckpoint = " + walAutoCheckpointPages);
+            }
+            stmt.execute("PRAGMA synchronous = " + synchronous);
+            stmt.execute("PRAGMA cache_size = -" + cacheSizeKib);
+            stmt.execute("PRAGMA mmap_size = " + mmapSizeBytes);
+            stmt.execute("PRAGMA temp_store = " + tempStore);
+        }
+    }
+
+    public Profile getProfile() {
+        return profile;
+    }
+
+    public String getSynchronous() {
+        return synchronous;
+    }
+
+    public int getCacheSizeKib() {
+        return cacheSizeKib;
+    }
+
+    public long getMmapSizeBytes() {
+        return mmapSizeBytes;
+    }
+
+    public String getTempStore() {
+        return tempStore;
+    }
+
+    public int getWalAutoCheckpointPages() {
+        return walAutoCheckpointPages;
+    }
+
+    // Seconds between background PASSIVE checkpoints, 0 to rely on wal_autocheckpoint only
+    public int getCheckpointIntervalSeconds() {
+        return checkpointIntervalSeconds;
+    }
+
+    // Most queued writes committed together in one transaction
+    public int getWriteBatchSize() {
+        return writeBatchSize;
+    }
+
+    @Override
+    public String toString() {
+        return "StorageConfig[profile=" + profile + ", synchronous=" + synchronous + ", cacheSizeKib=" + cacheSizeKib
+                + ", mmapSizeBytes=" + mmapSizeBytes + ", tempStore=" + tempStore
+                + ", walAutoCheckpointPages=" + walAutoCheckpointPages
+                + ", checkpointSeconds=" + checkpointIntervalSeconds + ", writeBatchSize=" + writeBatchSize + "]";
+    }
+
+    // PRAGMA values are concatenated into SQL, so only accept the known keywords
+    private static String checkOption(String value, String... allowed) {
+        String upper = value.toUpperCase(Locale.ROOT);
+        for (String option : allowed) {
+            if (option.equals(upper)) {
+                return upper;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported setting '" + value + "'.");
+    }
+}
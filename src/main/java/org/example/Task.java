@@ -1,8 +1,55 @@
 package org.example;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
 
 public class Task {
+    // The stored columns a caller can edit, in table order
+    public enum Field {
+        TASK_NAME("task_name"),
+        CATEGORY("category"),
+        DESCRIPTION("description"),
+        COMPLETED("completed"),
+        CREATED_AT("created_at"),
+        DEADLINE("deadline");
+
+        private final String column;
+
+        Field(String column) {
+            this.column = column;
+        }
+
+        public String getColumn() {
+            return column;
+        }
+
+        // Reads through the task's getter, so subclasses backed by other storage work too
+        public Object get(Task task) {
+            return switch (this) {
+                case TASK_NAME -> task.getTaskName();
+                case CATEGORY -> task.getCategory();
+                case DESCRIPTION -> task.getDescription();
+                case COMPLETED -> task.isCompleted();
+                case CREATED_AT -> task.getCreatedAt();
+                case DEADLINE -> task.getDeadline();
+            };
+        }
+
+        // Sets the value through the task's setter, so it is tracked like any other edit
+        public void set(Task task, Object value) {
+            switch (this) {
+                case TASK_NAME -> task.setTaskName((String) value);
+                case CATEGORY -> task.setCategory((String) value);
+                case DESCRIPTION -> task.setDescription((String) value);
+                case COMPLETED -> task.setCompleted((Boolean) value);
+                case CREATED_AT -> task.setCreatedAt((LocalDateTime) value);
+                case DEADLINE -> task.setDeadline((LocalDateTime) value);
+            }
+        }
+    }
+
     private int id;  // Task ID
     private String taskName;
     private String category;
@@ -10,6 +57,10 @@ public class Task {
     private boolean completed;
     private LocalDateTime createdAt;
     private LocalDateTime deadline;
+    private int version;  // Row version this task was read at; 0 if unknown (never stored or not read back)
+    // Fields changed by a setter since the task was built or last saved, one bit per Field ordinal.
+    // A bit mask rather than a set: large views hold hundreds of thousands of tasks.
+    private int dirtyFields;
 
     // Constructor for creating a new task (without specifying the ID)
     public Task(String taskName, String category, String description, boolean completed, LocalDateTime createdAt, LocalDateTime deadline) {
@@ -36,6 +87,19 @@ public class Task {
         this.deadline = deadline;
     }
 
+    // Copy constructor (used by caches so callers cannot modify cached instances)
+    public Task(Task other) {
+        this.id = other.getId();
+        this.taskName = other.getTaskName();
+        this.category = other.getCategory();
+        this.description = other.getDescription();
+        this.completed = other.isCompleted();
+        this.createdAt = other.getCreatedAt();
+        this.deadline = other.getDeadline();
+        this.version = other.getVersion();
+        this.dirtyFields = other.getDirtyMask();
+    }
+
     // Getter and setter methods
     public int getId() {
         return id;
@@ -53,7 +117,10 @@ public class Task {
     }
 
     public void setTaskName(String taskName) {
-        this.taskName = taskName;
+        if (!Objects.equals(this.taskName, taskName)) {
+            this.taskName = taskName;
+            markDirty(Field.TASK_NAME);
+        }
     }
 
     public String getCategory() {
@@ -61,7 +128,10 @@ public class Task {
     }
 
     public void setCategory(String category) {
-        this.category = category;
+        if (!Objects.equals(this.category, category)) {
+            this.category = category;
+            markDirty(Field.CATEGORY);
+        }
     }
 
     public String getDescription() {
@@ -69,7 +139,10 @@ public class Task {
     }
 
     public void setDescription(String description) {
-        this.description = description;
+        if (!Objects.equals(this.description, description)) {
+            this.description = description;
+            markDirty(Field.DESCRIPTION);
+        }
     }
 
     public boolean isCompleted() {
@@ -77,7 +150,10 @@ public class Task {
     }
 
     public void setCompleted(boolean completed) {
-        this.completed = completed;
+        if (this.completed != completed) {
+            this.completed = completed;
+            markDirty(Field.COMPLETED);
+        }
     }
 
     public LocalDateTime getCreatedAt() {
@@ -85,7 +161,10 @@ public class Task {
     }
 
     public void setCreatedAt(LocalDateTime createdAt) {
-        this.createdAt = createdAt;
+        if (!Objects.equals(this.createdAt, createdAt)) {
+            this.createdAt = createdAt;
+            markDirty(Field.CREATED_AT);
+        }
     }
 
     public LocalDateTime getDeadline() {
@@ -93,6 +172,50 @@ public class Task {
     }
 
     public void setDeadline(LocalDateTime deadline) {
-        this.deadline = deadline;
+        if (!Objects.equals(this.deadline, deadline)) {
+            this.deadline = deadline;
+            markDirty(Field.DEADLINE);
+        }
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    // Whether any field was changed since the task was built, read or last saved
+    public boolean isDirty() {
+        return getDirtyMask() != 0;
+    }
+
+    public boolean isDirty(Field field) {
+        return (getDirtyMask() & (1 << field.ordinal())) != 0;
+    }
+
+    public Set<Field> getDirtyFields() {
+        Set<Field> fields = EnumSet.noneOf(Field.class);
+        for (Field field : Field.values()) {
+            if (isDirty(field)) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    public void markDirty(Field field) {
+        dirtyFields |= 1 << field.ordinal();
+    }
+
+    // Method to forget tracked changes (called once they are stored)
+    public void clearDirty() {
+        dirtyFields = 0;
+    }
+
+    // Dirty fields as a bit mask by Field ordinal (for building statements)
+    int getDirtyMask() {
+        return dirtyFields;
     }
 }
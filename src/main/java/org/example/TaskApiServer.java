@@ -0,0 +1,625 @@
+package org.example;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Headless HTTP/JSON API over {@link TaskService}, on the JDK's HttpServer with
+ * one virtual thread per exchange. It never touches JavaFX, so it runs from the
+ * class path without the JavaFX modules:
+ * <pre>
+ *   java -cp target/classes:sqlite-jdbc.jar org.example.TaskApiServer [port]
+ * </pre>
+ * There is no authentication, so it listens on the loopback interface only;
+ * -Dtasks.api.host=0.0.0.0 (or another local address) exposes it deliberately.
+ * Endpoints (tasks use the JSON field names of the JSON lines import):
+ * <pre>
+ *   GET    /tasks?limit=&amp;cursor=&amp;sort=newest|oldest   keyset page, "next" is the cursor for the following page
+ *   GET    /tasks?category=&amp;completed=&amp;limit=&amp;offset=  filtered query (TaskQuery)
+ *   GET    /tasks/{id}
+ *   POST   /tasks                  one task object; 201 with Location
+ *   PUT    /tasks/{id}
+ *   DELETE /tasks/{id}
+ *   GET    /tasks/search?q=&amp;limit=
+ *   POST   /tasks/bulk             JSON lines body, inserted in one transaction
+ *   PUT    /tasks/bulk             JSON lines body with ids, updated in one transaction
+ *   DELETE /tasks/bulk?ids=1,2,3
+ *   GET    /metrics[?format=text]  TaskMetrics snapshot
+ * </pre>
+ * Lists are streamed with chunked encoding, so responses of any size use a fixed
+ * amount of memory. GET responses carry an ETag and answer If-None-Match with
+ * 304: a single task is tagged by its row version, lists by the database's
+ * change counter (schema migration 9), which every write to the tasks table
+ * moves, whichever process makes it. A PUT
+ * with If-Match only applies to the tagged version: if the row has moved on it
+ * answers 412 with the current task. HTTP/1.1 connections are kept alive
+ * between requests.
+ */
+public class TaskApiServer implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(TaskApiServer.class.getName());
+
+    public static final int DEFAULT_PORT = 8080;
+    // -Dtasks.api.host picks the interface to listen on; unset means loopback only
+    private static final String HOST = System.getProperty("tasks.api.host");
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final TaskService taskService;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public TaskApiServer(TaskService taskService, int port) throws IOException {
+        this(taskService, HOST != null ? new InetSocketAddress(HOST, port)
+                : new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    public TaskApiServer(TaskService taskService, InetSocketAddress address) throws IOException {
+        this.taskService = taskService;
+        this.server = HttpServer.create(address, 0);
+        server.createContext("/tasks", this::handle);
+        server.createContext("/metrics", this::handleMetrics);
+        server.setExecutor(executor);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : Integer.getInteger("tasks.api.port", DEFAULT_PORT);
+        DatabaseHelper.initializeSchema();
+        TaskApiServer apiServer = new TaskApiServer(new TaskService(), port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            apiServer.close();
+            DatabaseHelper.shutdown();
+        }, "tasks-api-shutdown"));
+        apiServer.start();
+    }
+
+    public void start() {
+        server.start();
+        logger.info("Task API listening on " + server.getAddress() + ".");
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Method to stop accepting requests, give running exchanges a second to finish and release the threads
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            route(exchange);
+        } catch (NotFoundException e) {
+            sendError(exchange, 404, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error handling " + exchange.getRequestMethod() + " " + exchange.getRequestURI()
+                    + ": " + e.getMessage(), e);
+            sendError(exchange, 500, "Database error.");
+        } catch (IOException e) {
+            // Client went away mid-response; nothing left to tell it
+            logger.log(Level.FINE, "Connection error: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            // E.g. the write queue closing during shutdown, or a bug in a handler
+            logger.log(Level.SEVERE, "Error handling " + exchange.getRequestMethod() + " " + exchange.getRequestURI()
+                    + ": " + e.getMessage(), e);
+            sendError(exchange, 500, "Internal error.");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                methodNotAllowed(exchange, "GET");
+                return;
+            }
+            boolean text = "text".equals(queryParams(exchange.getRequestURI().getRawQuery()).get("format"));
+            byte[] body = (text ? TaskMetrics.toText() : TaskMetrics.toJson()).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", text ? "text/plain; charset=utf-8" : JSON);
+            exchange.getResponseHeaders().set("Cache-Control", "no-store");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException, SQLException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        Map<String, String> params = queryParams(exchange.getRequestURI().getRawQuery());
+        String[] segments = path.replaceAll("/+$", "").split("/");
+        // segments[0] is empty and segments[1] is "tasks"
+        String resource = segments.length > 2 ? segments[2] : null;
+        if (segments.length > 3) {
+            throw new NotFoundException("No such resource: " + path);
+        }
+
+        if (resource == null) {
+            switch (method) {
+                case "GET" -> listTasks(exchange, params);
+                case "POST" -> createTask(exchange);
+                default -> methodNotAllowed(exchange, "GET, POST");
+            }
+        } else if (resource.equals("search")) {
+            if (method.equals("GET")) {
+                searchTasks(exchange, params);
+            } else {
+                methodNotAllowed(exchange, "GET");
+            }
+        } else if (resource.equals("bulk")) {
+            switch (method) {
+                case "POST" -> bulkInsert(exchange);
+                case "PUT" -> bulkUpdate(exchange);
+                case "DELETE" -> bulkDelete(exchange, params);
+                default -> methodNotAllowed(exchange, "POST, PUT, DELETE");
+            }
+        } else {
+            int taskId = parseId(resource);
+            switch (method) {
+                case "GET" -> getTask(exchange, taskId);
+                case "PUT" -> updateTask(exchange, taskId);
+                case "DELETE" -> deleteTask(exchange, taskId);
+                default -> methodNotAllowed(exchange, "GET, PUT, DELETE");
+            }
+        }
+    }
+
+    private void listTasks(HttpExchange exchange, Map<String, String> params) throws IOException, SQLException {
+        if (notModified(exchange, listETag(exchange))) {
+            return;
+        }
+        int limit = parseLimit(params.get("limit"));
+        if (params.containsKey("category") || params.containsKey("completed") || params.containsKey("offset")) {
+            TaskQuery query = new TaskQuery();
+            if (params.containsKey("category")) {
+                query.category(params.get("category").split(","));
+            }
+            if (params.containsKey("completed")) {
+                query.completed(parseBoolean(params.get("completed"), "completed"));
+            }
+            query.page(limit, params.containsKey("offset") ? parseNonNegative(params.get("offset"), "offset") : 0);
+            List<Task> tasks = taskService.findTasks(query);
+            try (Writer out = startJson(exchange, 200)) {
+                out.write("{\"tasks\":");
+                writeTasks(out, tasks);
+                out.write('}');
+            }
+            return;
+        }
+
+        TaskPage.Sort sort = "oldest".equals(params.get("sort")) ? TaskPage.Sort.OLDEST_FIRST : TaskPage.Sort.NEWEST_FIRST;
+        TaskPage page = taskService.getTasksPage(parseCursor(params.get("cursor")), limit, sort);
+        try (Writer out = startJson(exchange, 200)) {
+            out.write("{\"tasks\":");
+            writeTasks(out, page.getTasks());
+            out.write(",\"hasMore\":");
+            out.write(Boolean.toString(page.hasMore()));
+            out.write(",\"next\":");
+            TaskPage.Cursor next = page.getNextCursor();
+            writeString(out, next != null && page.hasMore() ? formatCursor(next) : null);
+            out.write('}');
+        }
+    }
+
+    // Single rows are read from the database, not the service's cache: other processes write
+    // too, and the ETag must carry the row's current version
+    private void getTask(HttpExchange exchange, int taskId) throws IOException, SQLException {
+        Task task = taskService.getStoredTask(taskId);
+        if (task == null) {
+            throw new NotFoundException("No task found with ID: " + taskId);
+        }
+        if (notModified(exchange, taskETag(task))) {
+            return;
+        }
+        sendTask(exchange, 200, task);
+    }
+
+    private void createTask(HttpExchange exchange) throws IOException, SQLException {
+        Task task = TaskImporter.toTask(TaskImporter.jsonValues(readBody(exchange)));
+        taskService.addTask(task);
+        exchange.getResponseHeaders().set("Location", "/tasks/" + task.getId());
+        sendTask(exchange, 201, task);
+    }
+
+    private void updateTask(HttpExchange exchange, int taskId) throws IOException, SQLException {
+        // Without created_at in the body the stored one is kept
+        Task task = TaskImporter.toTaskUpdate(TaskImporter.jsonValues(readBody(exchange)));
+        task.setId(taskId);
+        // Without If-Match (or with *) the request replaces whatever is stored
+        task.setVersion(expectedVersion(exchange.getRequestHeaders().getFirst("If-Match"), taskId));
+        boolean updated;
+        try {
+            updated = taskService.updateTask(task);
+        } catch (TaskConflictException e) {
+            Task current = e.getCurrent();
+            exchange.getResponseHeaders().set("ETag", taskETag(current));
+            sendTask(exchange, 412, current);
+            return;
+        }
+        if (!updated) {
+            throw new NotFoundException("No task found with ID: " + taskId);
+        }
+        exchange.getResponseHeaders().set("ETag", taskETag(task));
+        sendTask(exchange, 200, task);
+    }
+
+    // Strong tag for a single task: every write to the row, from any process, bumps its version
+    private static String taskETag(Task task) {
+        return "\"" + task.getId() + "." + task.getVersion() + "\"";
+    }
+
+    // The version an If-Match header pins the update to, or 0 for none
+    private static int expectedVersion(String ifMatch, int taskId) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return 0;
+        }
+        String tag = ifMatch.trim();
+        int dot = tag.indexOf('.');
+        if (tag.startsWith("\"") && tag.endsWith("\"") && dot > 0) {
+            try {
+                int id = Integer.parseInt(tag.substring(1, dot));
+                int version = Integer.parseInt(tag.substring(dot + 1, tag.length() - 1));
+                if (id == taskId && version > 0) {
+                    return version;
+                }
+            } catch (NumberFormatException ignored) {
+                // Reported below
+            }
+        }
+        throw new IllegalArgumentException("If-Match must be a single ETag of this task: " + ifMatch);
+    }
+
+    private void deleteTask(HttpExchange exchange, int taskId) throws IOException, SQLException {
+        if (taskService.getStoredTask(taskId) == null) {
+            throw new NotFoundException("No task found with ID: " + taskId);
+        }
+        taskService.deleteTask(taskId);
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    private void searchTasks(HttpExchange exchange, Map<String, String> params) throws IOException, SQLException {
+        String query = params.get("q");
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Missing search query (q).");
+        }
+        if (notModified(exchange, listETag(exchange))) {
+            return;
+        }
+        int limit = params.containsKey("limit") ? parseLimit(params.get("limit")) : TaskSearch.DEFAULT_LIMIT;
+        List<TaskSearch.SearchHit> hits = taskService.searchTasks(query, limit);
+        try (Writer out = startJson(exchange, 200)) {
+            out.write("{\"hits\":[");
+            StringBuilder json = new StringBuilder(512);
+            for (int i = 0; i < hits.size(); i++) {
+                TaskSearch.SearchHit hit = hits.get(i);
+                json.setLength(0);
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append("{\"score\":").append(hit.getScore()).append(",\"snippet\":");
+                appendString(json, hit.getSnippet());
+                json.append(",\"task\":");
+                appendTask(json, hit.getTask());
+                json.append('}');
+                out.append(json);
+            }
+            out.write("]}");
+        }
+    }
+
+    private void bulkInsert(HttpExchange exchange) throws IOException, SQLException {
+        List<Task> tasks = new ArrayList<>();
+        readJsonLines(exchange, values -> tasks.add(TaskImporter.toTask(values)));
+        BatchResult result = taskService.addTasks(tasks);
+        sendBatchResult(exchange, 201, result);
+    }
+
+    private void bulkUpdate(HttpExchange exchange) throws IOException, SQLException {
+        List<Task> tasks = new ArrayList<>();
+        readJsonLines(exchange, values -> {
+            Task task = TaskImporter.toTaskUpdate(values);
+            task.setId(parseId(values[TaskImporter.ID]));
+            tasks.add(task);
+        });
+        BatchResult result = taskService.updateTasks(tasks);
+        sendBatchResult(exchange, 200, result);
+    }
+
+    private void bulkDelete(HttpExchange exchange, Map<String, String> params) throws IOException, SQLException {
+        String ids = params.get("ids");
+        if (ids == null || ids.isBlank()) {
+            throw new IllegalArgumentException("Missing task IDs (ids).");
+        }
+        String[] parts = ids.split(",");
+        int[] taskIds = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            taskIds[i] = parseId(parts[i].trim());
+        }
+        BatchResult result = taskService.deleteTasks(taskIds);
+        sendBatchResult(exchange, 200, result);
+    }
+
+    // Weak tag for a list response: same table change count and same request URI means the same body
+    private String listETag(HttpExchange exchange) throws SQLException {
+        return "W/\"" + Long.toHexString(taskService.getChangeCount()) + "-"
+                + Integer.toHexString(exchange.getRequestURI().toString().hashCode()) + "\"";
+    }
+
+    // Sets the ETag and answers 304 if the client already holds it
+    private static boolean notModified(HttpExchange exchange, String eTag) throws IOException {
+        exchange.getResponseHeaders().set("ETag", eTag);
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String weakless = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(weakless)) {
+                exchange.sendResponseHeaders(304, -1);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Starts a chunked JSON response; the caller writes the body and closes the writer
+    private static Writer startJson(HttpExchange exchange, int status) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, 0);
+        return new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+    }
+
+    private static void sendTask(HttpExchange exchange, int status, Task task) throws IOException {
+        StringBuilder json = new StringBuilder(256);
+        appendTask(json, task);
+        byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static void sendBatchResult(HttpExchange exchange, int status, BatchResult result) throws IOException {
+        try (Writer out = startJson(exchange, status)) {
+            out.write("{\"rows\":" + result.size() + ",\"affected\":" + result.getAffectedCount() + ",\"ids\":[");
+            int[] ids = result.getGeneratedIds();
+            for (int i = 0; i < ids.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write(Integer.toString(ids[i]));
+            }
+            out.write("]}");
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) {
+        try {
+            StringBuilder json = new StringBuilder("{\"error\":");
+            appendString(json, message);
+            byte[] body = json.append('}').toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", JSON);
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Could not send error response: " + e.getMessage(), e);
+        }
+    }
+
+    private static void methodNotAllowed(HttpExchange exchange, String allowed) {
+        exchange.getResponseHeaders().set("Allow", allowed);
+        sendError(exchange, 405, "Method not allowed.");
+    }
+
+    // Writes a JSON array one task at a time through a reused builder
+    private static void writeTasks(Writer out, List<Task> tasks) throws IOException {
+        out.write('[');
+        StringBuilder json = new StringBuilder(256);
+        for (int i = 0; i < tasks.size(); i++) {
+            json.setLength(0);
+            if (i > 0) {
+                json.append(',');
+            }
+            appendTask(json, tasks.get(i));
+            out.append(json);
+        }
+        out.write(']');
+    }
+
+    static StringBuilder appendTask(StringBuilder json, Task task) {
+        json.append("{\"id\":").append(task.getId()).append(",\"task_name\":");
+        appendString(json, task.getTaskName());
+        json.append(",\"category\":");
+        appendString(json, task.getCategory());
+        json.append(",\"description\":");
+        appendString(json, task.getDescription());
+        json.append(",\"completed\":").append(task.isCompleted());
+        json.append(",\"created_at\":");
+        appendTimestamp(json, task.getCreatedAt());
+        json.append(",\"deadline\":");
+        appendTimestamp(json, task.getDeadline());
+        json.append(",\"version\":").append(task.getVersion());
+        return json.append('}');
+    }
+
+    private static void appendTimestamp(StringBuilder json, LocalDateTime value) {
+        if (value == null) {
+            json.append("null");
+        } else {
+            json.append('"').append(value).append('"');
+        }
+    }
+
+    static StringBuilder appendString(StringBuilder json, String value) {
+        if (value == null) {
+            return json.append("null");
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"');
+    }
+
+    private static void writeString(Writer out, String value) throws IOException {
+        out.append(appendString(new StringBuilder(), value));
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        return new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    // Parses a JSON lines body (one flat task object per line, blank lines skipped)
+    private static void readJsonLines(HttpExchange exchange, RecordHandler handler) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    handler.handle(TaskImporter.jsonValues(line));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    // Cursor token "<created_at millis>.<id>"; created_at is stored as epoch millis (TimestampCodec)
+    static String formatCursor(TaskPage.Cursor cursor) {
+        return cursor.getCreatedAt() + "." + cursor.getId();
+    }
+
+    static TaskPage.Cursor parseCursor(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        int dot = token.lastIndexOf('.');
+        try {
+            if (dot <= 0) {
+                throw new NumberFormatException();
+            }
+            return new TaskPage.Cursor(Long.parseLong(token.substring(0, dot)), Integer.parseInt(token.substring(dot + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+
+    private static int parseLimit(String value) {
+        if (value == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        int limit = parseNonNegative(value, "limit");
+        if (limit == 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        return limit;
+    }
+
+    private static int parseNonNegative(String value, String name) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed >= 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException ignored) {
+            // Reported below
+        }
+        throw new IllegalArgumentException(name + " must be a non-negative integer.");
+    }
+
+    private static int parseId(String value) {
+        try {
+            int id = Integer.parseInt(value);
+            if (id > 0) {
+                return id;
+            }
+        } catch (NumberFormatException ignored) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Task ID must be a positive integer.");
+    }
+
+    private static boolean parseBoolean(String value, String name) {
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException(name + " must be true or false.");
+    }
+
+    private static Map<String, String> queryParams(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.putIfAbsent(key, value);
+        }
+        return params;
+    }
+
+    @FunctionalInterface
+    private interface RecordHandler {
+        void handle(String[] values);
+    }
+
+    private static final class NotFoundException extends RuntimeException {
+        private NotFoundException(String message) {
+            super(message);
+        }
+    }
+}
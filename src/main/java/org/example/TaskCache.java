@@ -0,0 +1,187 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounded LRU cache of tasks by id with secondary indexes on category and
+ * completed. Stores and returns copies so callers editing a Task cannot change
+ * cached state behind the indexes' back. Filter lookups are only answered when
+ * the cache is known to hold every task (see {@link #isComplete()}).
+ */
+public class TaskCache {
+    private final int maxSize;
+    private final LinkedHashMap<Integer, Task> tasksById;
+    private final Map<String, Set<Integer>> idsByCategory = new HashMap<>();
+    private final Map<Boolean, Set<Integer>> idsByCompleted = new HashMap<>();
+    private boolean complete;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public TaskCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be a positive integer.");
+        }
+        this.maxSize = maxSize;
+        this.tasksById = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    // Method to look up a task; returns null on a miss
+    public synchronized Task get(int taskId) {
+        Task task = tasksById.get(taskId);
+        if (task == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return new Task(task);
+    }
+
+    // Method to add or replace a task (write-through from the service)
+    public synchronized void put(Task task) {
+        if (task.getId() <= 0) {
+            return;
+        }
+        Task previous = tasksById.put(task.getId(), new Task(task));
+        if (previous != null) {
+            unindex(previous);
+        }
+        index(task);
+        evictIfNeeded();
+    }
+
+    public synchronized void remove(int taskId) {
+        Task removed = tasksById.remove(taskId);
+        if (removed != null) {
+            unindex(removed);
+        }
+    }
+
+    // Method to replace the contents with the full task table; the cache is complete if it all fits
+    public synchronized void putAll(Collection<Task> allTasks) {
+        clear();
+        for (Task task : allTasks) {
+            put(task);
+        }
+        complete = allTasks.size() <= maxSize;
+    }
+
+    public synchronized void clear() {
+        tasksById.clear();
+        idsByCategory.clear();
+        idsByCompleted.clear();
+        complete = false;
+    }
+
+    // True while the cache holds every task, so filtered views can be served from memory
+    public synchronized boolean isComplete() {
+        return complete;
+    }
+
+    // Method to stop answering whole-table lookups (the table changed behind the cache's back);
+    // the cached tasks stay for lookups by id
+    public synchronized void markIncomplete() {
+        complete = false;
+    }
+
+    // All cached tasks (copies); only the full table when isComplete()
+    public synchronized List<Task> getAll() {
+        List<Task> result = new ArrayList<>(tasksById.size());
+        for (Task task : tasksById.values()) {
+            result.add(new Task(task));
+        }
+        return result;
+    }
+
+    // Tasks in a category, or null when the cache is not complete
+    public synchronized List<Task> getByCategory(String category) {
+        return complete ? copiesOf(idsByCategory.get(category)) : null;
+    }
+
+    // Tasks with the given completed flag, or null when the cache is not complete
+    public synchronized List<Task> getByCompleted(boolean completed) {
+        return complete ? copiesOf(idsByCompleted.get(completed)) : null;
+    }
+
+    public synchronized int size() {
+        return tasksById.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("TaskCache[size=%d/%d, complete=%b, hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d]",
+                tasksById.size(), maxSize, complete, hits, misses, getHitRate() * 100, evictions);
+    }
+
+    private List<Task> copiesOf(Set<Integer> ids) {
+        List<Task> result = new ArrayList<>();
+        if (ids == null) {
+            return result;
+        }
+        for (Integer id : ids) {
+            result.add(new Task(tasksById.get(id)));
+        }
+        return result;
+    }
+
+    private void index(Task task) {
+        idsByCategory.computeIfAbsent(task.getCategory(), key -> new LinkedHashSet<>()).add(task.getId());
+        idsByCompleted.computeIfAbsent(task.isCompleted(), key -> new LinkedHashSet<>()).add(task.getId());
+    }
+
+    private void unindex(Task task) {
+        removeFromIndex(idsByCategory, task.getCategory(), task.getId());
+        removeFromIndex(idsByCompleted, task.isCompleted(), task.getId());
+    }
+
+    private static <K> void removeFromIndex(Map<K, Set<Integer>> index, K key, int taskId) {
+        Set<Integer> ids = index.get(key);
+        if (ids != null) {
+            ids.remove(taskId);
+            if (ids.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Task> eldest = tasksById.values().iterator();
+        while (tasksById.size() > maxSize && eldest.hasNext()) {
+            Task evicted = eldest.next();
+            eldest.remove();
+            unindex(evicted);
+            evictions++;
+            complete = false;
+        }
+    }
+}
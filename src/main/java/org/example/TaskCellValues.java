@@ -0,0 +1,104 @@
+package org.example;
+
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.value.ObservableValue;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * Memoised cell values for the task table. Each task gets one set of string
+ * properties, created the first time it is shown and reused on every later
+ * render, scroll and refresh; a lookup only compares the task's current fields
+ * with the cached ones. Dates are formatted with one shared formatter, and only
+ * when the value changed. Entries go away with their tasks (weak keys).
+ * <p>
+ * Used from the JavaFX thread only.
+ */
+final class TaskCellValues {
+    static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final String NO_DEADLINE = "No Deadline";
+
+    private final Map<Task, CachedRow> rows = new WeakHashMap<>();
+
+    ObservableValue<String> taskName(Task task) {
+        return row(task).text(CachedRow.NAME, task.getTaskName());
+    }
+
+    ObservableValue<String> category(Task task) {
+        return row(task).text(CachedRow.CATEGORY, task.getCategory());
+    }
+
+    ObservableValue<String> description(Task task) {
+        return row(task).text(CachedRow.DESCRIPTION, task.getDescription());
+    }
+
+    ObservableValue<String> createdAt(Task task) {
+        return row(task).createdAt(task.getCreatedAt());
+    }
+
+    ObservableValue<String> deadline(Task task) {
+        return row(task).deadline(task.getDeadline());
+    }
+
+    // Method to format a date the way the table shows it; empty for null
+    static String format(LocalDateTime value) {
+        return value != null ? DATE_TIME_FORMAT.format(value) : "";
+    }
+
+    private CachedRow row(Task task) {
+        CachedRow row = rows.get(task);
+        if (row == null) {
+            row = new CachedRow();
+            rows.put(task, row);
+        }
+        return row;
+    }
+
+    private static final class CachedRow {
+        private static final int NAME = 0;
+        private static final int CATEGORY = 1;
+        private static final int DESCRIPTION = 2;
+
+        private final SimpleStringProperty[] texts = new SimpleStringProperty[3];
+        private SimpleStringProperty createdAtText;
+        private LocalDateTime createdAt;
+        private SimpleStringProperty deadlineText;
+        private LocalDateTime deadline;
+
+        // Setting an equal value fires no change, so a cell bound to it is left alone
+        private SimpleStringProperty text(int column, String value) {
+            SimpleStringProperty property = texts[column];
+            if (property == null) {
+                property = new SimpleStringProperty(value);
+                texts[column] = property;
+            } else {
+                property.set(value);
+            }
+            return property;
+        }
+
+        private SimpleStringProperty createdAt(LocalDateTime value) {
+            if (createdAtText == null) {
+                createdAtText = new SimpleStringProperty(format(value));
+            } else if (!Objects.equals(createdAt, value)) {
+                createdAtText.set(format(value));
+            }
+            createdAt = value;
+            return createdAtText;
+        }
+
+        private SimpleStringProperty deadline(LocalDateTime value) {
+            if (deadlineText == null) {
+                deadlineText = new SimpleStringProperty(value != null ? format(value) : NO_DEADLINE);
+            } else if (!Objects.equals(deadline, value)) {
+                deadlineText.set(value != null ? format(value) : NO_DEADLINE);
+            }
+            deadline = value;
+            return deadlineText;
+        }
+    }
+}
@@ -0,0 +1,838 @@
+package org.example;
+
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compact in-memory copy of many tasks, stored column by column: primitive ids,
+ * epoch-millisecond timestamps (see {@link TimestampCodec}), one bit per
+ * completed flag and dictionary-encoded categories. No per-task object exists
+ * until a row is asked for; {@link #view(int)} returns a small {@link Task}
+ * whose getters and setters read and write the columns in place. Each row also
+ * keeps its row version and dirty fields, so a view saves like any other Task:
+ * compare-and-set against the version it was read at, writing only what changed.
+ * <p>
+ * A row has one view at a time, so a view can key a map (TaskCellValues does).
+ * The store holds its views weakly: rows that are not shown cost nothing beyond
+ * their columns. A view follows its row when rows before it are inserted or
+ * removed; once its own row is removed it keeps a copy of that row and no longer
+ * reads the store. {@link #indexOfId} is a hash lookup, rebuilt after rows move.
+ * <p>
+ * Not thread-safe. Once {@link #asObservableList()} has been handed to a
+ * TableView, change the store only on the JavaFX thread. Edits made through a
+ * view's setters are not reported to the list; refresh the table after them.
+ * TaskColumnStoreBenchmark (benchmarks module) compares its heap and scroll cost
+ * with a list of Tasks.
+ */
+public class TaskColumnStore {
+    // Stored in the timestamp columns for SQL NULL; sorts before every real timestamp
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    private static final int NO_CATEGORY = -1;
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private int size;
+    private int[] ids;
+    private String[] taskNames;
+    private int[] categoryCodes;
+    private String[] descriptions;
+    private long[] createdAt;
+    private long[] deadlines;
+    private int[] versions;
+    // Dirty fields per row, as in Task.getDirtyMask (six fields fit a byte)
+    private byte[] dirtyMasks;
+    private final BitSet completed = new BitSet();
+
+    // Category dictionary: each distinct category string is held once
+    private final List<String> categories = new ArrayList<>();
+    private final Map<String, Integer> categoryCodesByName = new HashMap<>();
+
+    // The view handed out for each row, if any (null until the first view is asked for)
+    private ViewRef[] views;
+    private final ReferenceQueue<TaskView> collectedViews = new ReferenceQueue<>();
+
+    // id -> row, open addressing; a slot holds row + 1 (0 = empty) and the key is that row's id.
+    // Null until the first lookup, and again whenever rows move.
+    private int[] idIndex;
+    private int idIndexEntries;
+
+    private ViewList list;
+
+    public TaskColumnStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public TaskColumnStore(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative.");
+        }
+        allocate(initialCapacity);
+    }
+
+    // Method to fill a store from a "SELECT " + TaskDaoImpl.TASK_COLUMNS query, without creating a Task per row
+    static TaskColumnStore read(ResultSet rs, int expectedRows) throws SQLException {
+        TaskColumnStore store = new TaskColumnStore(Math.max(expectedRows, 16));
+        while (rs.next()) {
+            int row = store.appendRow();
+            store.ids[row] = rs.getInt(1);
+            store.taskNames[row] = rs.getString(2);
+            store.categoryCodes[row] = store.encodeCategory(rs.getString(3));
+            store.descriptions[row] = rs.getString(4);
+            store.completed.set(row, rs.getBoolean(5));
+            long created = rs.getLong(6);
+            store.createdAt[row] = rs.wasNull() ? NO_TIMESTAMP : created;
+            long deadline = rs.getLong(7);
+            store.deadlines[row] = rs.wasNull() ? NO_TIMESTAMP : deadline;
+            store.versions[row] = rs.getInt(8);
+        }
+        return store;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Method to append a copy of the task; returns its row
+    public int add(Task task) {
+        int row = appendRow();
+        setRow(row, task);
+        indexRow(row);
+        if (list != null) {
+            list.added(row, row + 1);
+        }
+        return row;
+    }
+
+    // Method to append copies of the tasks, reported to the list as one change
+    public void addAll(Collection<? extends Task> tasks) {
+        int from = size;
+        for (Task task : tasks) {
+            int row = appendRow();
+            setRow(row, task);
+            indexRow(row);
+        }
+        if (list != null && size > from) {
+            list.added(from, size);
+        }
+    }
+
+    // Method to insert a copy of the task at a row; that row and later ones move down by one
+    public void insert(int row, Task task) {
+        if (row == size) {
+            add(task);
+            return;
+        }
+        checkRow(row);
+        appendRow();
+        int moved = size - row - 1;
+        System.arraycopy(ids, row, ids, row + 1, moved);
+        System.arraycopy(taskNames, row, taskNames, row + 1, moved);
+        System.arraycopy(categoryCodes, row, categoryCodes, row + 1, moved);
+        System.arraycopy(descriptions, row, descriptions, row + 1, moved);
+        System.arraycopy(createdAt, row, createdAt, row + 1, moved);
+        System.arraycopy(deadlines, row, deadlines, row + 1, moved);
+        System.arraycopy(versions, row, versions, row + 1, moved);
+        System.arraycopy(dirtyMasks, row, dirtyMasks, row + 1, moved);
+        for (int i = size - 1; i > row; i--) {
+            completed.set(i, completed.get(i - 1));
+        }
+        if (views != null) {
+            System.arraycopy(views, row, views, row + 1, moved);
+            views[row] = null;
+            renumberViews(row + 1, size);
+        }
+        idIndex = null;
+        setRow(row, task);
+        if (list != null) {
+            list.added(row, row + 1);
+        }
+    }
+
+    // Method to overwrite a row with a copy of the task; returns a copy of what it held.
+    // The row's view stays the same object and shows the new values.
+    public Task set(int row, Task task) {
+        checkRow(row);
+        Task previous = toTask(row);
+        setRow(row, task);
+        if (previous.getId() != ids[row]) {
+            indexRow(row);
+        }
+        if (list != null) {
+            list.replaced(row, previous);
+        }
+        return previous;
+    }
+
+    // Method to remove a row; later rows move up by one. Returns the row's view, now detached
+    // from the store, or a copy of the row if it had none.
+    public Task remove(int row) {
+        checkRow(row);
+        Task removed = detachView(row);
+        if (removed == null) {
+            removed = toTask(row);
+        }
+        int moved = size - row - 1;
+        System.arraycopy(ids, row + 1, ids, row, moved);
+        System.arraycopy(taskNames, row + 1, taskNames, row, moved);
+        System.arraycopy(categoryCodes, row + 1, categoryCodes, row, moved);
+        System.arraycopy(descriptions, row + 1, descriptions, row, moved);
+        System.arraycopy(createdAt, row + 1, createdAt, row, moved);
+        System.arraycopy(deadlines, row + 1, deadlines, row, moved);
+        System.arraycopy(versions, row + 1, versions, row, moved);
+        System.arraycopy(dirtyMasks, row + 1, dirtyMasks, row, moved);
+        for (int i = row; i < size - 1; i++) {
+            completed.set(i, completed.get(i + 1));
+        }
+        if (views != null) {
+            System.arraycopy(views, row + 1, views, row, moved);
+            views[size - 1] = null;
+            renumberViews(row, size - 1);
+        }
+        size--;
+        completed.clear(size);
+        taskNames[size] = null;
+        descriptions[size] = null;
+        idIndex = null;
+        if (list != null) {
+            list.removed(row, removed);
+        }
+        return removed;
+    }
+
+    public void clear() {
+        int removed = size;
+        detachViews();
+        Arrays.fill(taskNames, 0, size, null);
+        Arrays.fill(descriptions, 0, size, null);
+        completed.clear();
+        size = 0;
+        idIndex = null;
+        if (list != null && removed > 0) {
+            list.cleared(removed);
+        }
+    }
+
+    // Method to replace every row with copies of the tasks, reported to the list as one change
+    public void setAll(Collection<? extends Task> tasks) {
+        TaskColumnStore loaded = new TaskColumnStore(tasks.size());
+        for (Task task : tasks) {
+            loaded.setRow(loaded.appendRow(), task);
+        }
+        load(loaded);
+    }
+
+    // Method to replace every row with the rows of another store (e.g. from TaskService.getAllTasksColumnar),
+    // taking over its columns rather than copying them; the other store is left empty
+    public void load(TaskColumnStore source) {
+        if (source == this) {
+            return;
+        }
+        int removed = size;
+        detachViews();
+        source.detachViews();
+        size = source.size;
+        ids = source.ids;
+        taskNames = source.taskNames;
+        categoryCodes = source.categoryCodes;
+        descriptions = source.descriptions;
+        createdAt = source.createdAt;
+        deadlines = source.deadlines;
+        versions = source.versions;
+        dirtyMasks = source.dirtyMasks;
+        completed.clear();
+        completed.or(source.completed);
+        categories.clear();
+        categories.addAll(source.categories);
+        categoryCodesByName.clear();
+        categoryCodesByName.putAll(source.categoryCodesByName);
+        idIndex = null;
+
+        source.allocate(0);
+        source.size = 0;
+        source.completed.clear();
+        source.categories.clear();
+        source.categoryCodesByName.clear();
+        source.idIndex = null;
+        if (list != null && (removed > 0 || size > 0)) {
+            list.reloaded(removed);
+        }
+    }
+
+    // Method to find the row holding a task id, or -1
+    public int indexOfId(int taskId) {
+        if (idIndex == null) {
+            buildIdIndex();
+        }
+        int mask = idIndex.length - 1;
+        for (int slot = slotOf(taskId, mask); idIndex[slot] != 0; slot = (slot + 1) & mask) {
+            int row = idIndex[slot] - 1;
+            if (ids[row] == taskId) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    // Column accessors by row
+    public int getId(int row) {
+        checkRow(row);
+        return ids[row];
+    }
+
+    public String getTaskName(int row) {
+        checkRow(row);
+        return taskNames[row];
+    }
+
+    public String getCategory(int row) {
+        checkRow(row);
+        int code = categoryCodes[row];
+        return code == NO_CATEGORY ? null : categories.get(code);
+    }
+
+    public String getDescription(int row) {
+        checkRow(row);
+        return descriptions[row];
+    }
+
+    public boolean isCompleted(int row) {
+        checkRow(row);
+        return completed.get(row);
+    }
+
+    public LocalDateTime getCreatedAt(int row) {
+        checkRow(row);
+        return decode(createdAt[row]);
+    }
+
+    public LocalDateTime getDeadline(int row) {
+        checkRow(row);
+        return decode(deadlines[row]);
+    }
+
+    // Raw epoch millis (NO_TIMESTAMP for none), for sorting and comparisons without creating a LocalDateTime
+    public long getCreatedAtMillis(int row) {
+        checkRow(row);
+        return createdAt[row];
+    }
+
+    public long getDeadlineMillis(int row) {
+        checkRow(row);
+        return deadlines[row];
+    }
+
+    public int getVersion(int row) {
+        checkRow(row);
+        return versions[row];
+    }
+
+    public boolean hasDeadline(int row) {
+        checkRow(row);
+        return deadlines[row] != NO_TIMESTAMP;
+    }
+
+    // Number of distinct categories seen so far
+    public int getCategoryCount() {
+        return categories.size();
+    }
+
+    // Method to get the flyweight Task for a row; it reads and writes this store's columns.
+    // Asking again for the same row returns the same view while anything still holds it.
+    public Task view(int row) {
+        checkRow(row);
+        purgeCollectedViews();
+        if (views == null) {
+            views = new ViewRef[ids.length];
+        }
+        ViewRef ref = views[row];
+        TaskView view = ref != null ? ref.get() : null;
+        if (view == null) {
+            view = new TaskView(this, row);
+            views[row] = new ViewRef(view, row, collectedViews);
+        }
+        return view;
+    }
+
+    // Method to copy a row out into an ordinary, independent Task
+    public Task toTask(int row) {
+        checkRow(row);
+        int id = ids[row];
+        String category = getCategory(row);
+        LocalDateTime created = decode(createdAt[row]);
+        LocalDateTime deadline = decode(deadlines[row]);
+        Task task = id > 0
+                ? new Task(id, taskNames[row], category, descriptions[row], completed.get(row), created, deadline)
+                : new Task(taskNames[row], category, descriptions[row], completed.get(row), created, deadline);
+        task.setVersion(versions[row]);
+        for (Task.Field field : Task.Field.values()) {
+            if ((dirtyMasks[row] & (1 << field.ordinal())) != 0) {
+                task.markDirty(field);
+            }
+        }
+        return task;
+    }
+
+    // Method to release unused array capacity once loading is done
+    public void trimToSize() {
+        resize(size);
+    }
+
+    // The rows as an ObservableList of views, e.g. for TableView.setItems. Changes to the store are
+    // reported to it, and changes made through it (add, set, remove, setAll...) copy tasks into rows.
+    public ObservableList<Task> asObservableList() {
+        if (list == null) {
+            list = new ViewList();
+        }
+        return list;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskColumnStore{size=" + size + ", categories=" + categories.size() + "}";
+    }
+
+    private void allocate(int capacity) {
+        ids = new int[capacity];
+        taskNames = new String[capacity];
+        categoryCodes = new int[capacity];
+        descriptions = new String[capacity];
+        createdAt = new long[capacity];
+        deadlines = new long[capacity];
+        versions = new int[capacity];
+        dirtyMasks = new byte[capacity];
+        views = null;
+    }
+
+    private int appendRow() {
+        if (size == ids.length) {
+            resize(Math.max(16, size + (size >> 1)));
+        }
+        return size++;
+    }
+
+    private void setRow(int row, Task task) {
+        ids[row] = task.getId();
+        taskNames[row] = task.getTaskName();
+        categoryCodes[row] = encodeCategory(task.getCategory());
+        descriptions[row] = task.getDescription();
+        completed.set(row, task.isCompleted());
+        createdAt[row] = encode(task.getCreatedAt());
+        deadlines[row] = encode(task.getDeadline());
+        versions[row] = task.getVersion();
+        dirtyMasks[row] = (byte) task.getDirtyMask();
+    }
+
+    private void resize(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        taskNames = Arrays.copyOf(taskNames, capacity);
+        categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        deadlines = Arrays.copyOf(deadlines, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        dirtyMasks = Arrays.copyOf(dirtyMasks, capacity);
+        if (views != null) {
+            views = Arrays.copyOf(views, capacity);
+        }
+    }
+
+    private int encodeCategory(String category) {
+        if (category == null) {
+            return NO_CATEGORY;
+        }
+        Integer code = categoryCodesByName.get(category);
+        if (code == null) {
+            code = categories.size();
+            categories.add(category);
+            categoryCodesByName.put(category, code);
+        }
+        return code;
+    }
+
+    private static long encode(LocalDateTime value) {
+        return value == null ? NO_TIMESTAMP : TimestampCodec.toEpochMillis(value);
+    }
+
+    private static LocalDateTime decode(long millis) {
+        return millis == NO_TIMESTAMP ? null : TimestampCodec.fromEpochMillis(millis);
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+        }
+    }
+
+    // Tells the views in rows [from, to) where they are now, after the views array moved
+    private void renumberViews(int from, int to) {
+        for (int row = from; row < to; row++) {
+            ViewRef ref = views[row];
+            if (ref != null) {
+                ref.row = row;
+                TaskView view = ref.get();
+                if (view != null) {
+                    view.row = row;
+                }
+            }
+        }
+    }
+
+    // Detaches the row's view, if it still has one, and returns it
+    private TaskView detachView(int row) {
+        ViewRef ref = views != null ? views[row] : null;
+        if (ref == null) {
+            return null;
+        }
+        views[row] = null;
+        ref.row = -1;
+        TaskView view = ref.get();
+        if (view != null) {
+            view.detach(toTask(row));
+        }
+        return view;
+    }
+
+    private void detachViews() {
+        if (views != null) {
+            for (int row = 0; row < size; row++) {
+                detachView(row);
+            }
+            views = null;
+        }
+    }
+
+    // Frees the slots of views nothing holds any more
+    private void purgeCollectedViews() {
+        Reference<? extends TaskView> collected;
+        while ((collected = collectedViews.poll()) != null) {
+            ViewRef ref = (ViewRef) collected;
+            if (views != null && ref.row >= 0 && ref.row < views.length && views[ref.row] == ref) {
+                views[ref.row] = null;
+            }
+        }
+    }
+
+    private void buildIdIndex() {
+        int capacity = 16;
+        while (capacity < size * 2) {
+            capacity <<= 1;
+        }
+        idIndex = new int[capacity];
+        idIndexEntries = 0;
+        for (int row = 0; row < size; row++) {
+            indexRow(row);
+        }
+    }
+
+    // Adds a row under its current id. A row whose id changed keeps its old slot too; lookups skip
+    // it because the key is read from the id column. A full index is dropped and rebuilt on demand.
+    private void indexRow(int row) {
+        if (idIndex == null) {
+            return;
+        }
+        if ((idIndexEntries + 1) * 2 > idIndex.length) {
+            idIndex = null;
+            return;
+        }
+        int mask = idIndex.length - 1;
+        int slot = slotOf(ids[row], mask);
+        while (idIndex[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        idIndex[slot] = row + 1;
+        idIndexEntries++;
+    }
+
+    private static int slotOf(int id, int mask) {
+        int hash = id * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    // Weak reference to a row's view that knows the row, so its slot can be freed once collected
+    private static final class ViewRef extends WeakReference<TaskView> {
+        private int row;
+
+        private ViewRef(TaskView view, int row, ReferenceQueue<TaskView> queue) {
+            super(view, queue);
+            this.row = row;
+        }
+    }
+
+    /**
+     * A Task backed by one row of the store. Equality is identity, like any Task;
+     * the store hands out one view per row. After its row is removed the view
+     * reads and writes a private copy of the row instead.
+     */
+    private static final class TaskView extends Task {
+        private final TaskColumnStore store;
+        private int row;
+        private Task detached;
+
+        private TaskView(TaskColumnStore store, int row) {
+            super(null, null, null, false, null, null);
+            this.store = store;
+            this.row = row;
+        }
+
+        private void detach(Task copy) {
+            detached = copy;
+            row = -1;
+        }
+
+        @Override
+        public int getId() {
+            return detached != null ? detached.getId() : store.getId(row);
+        }
+
+        @Override
+        public void setId(int id) {
+            if (detached != null) {
+                detached.setId(id);
+                return;
+            }
+            if (id <= 0) {
+                throw new IllegalArgumentException("Task ID must be a positive integer.");
+            }
+            store.checkRow(row);
+            if (store.ids[row] != id) {
+                store.ids[row] = id;
+                store.indexRow(row);
+            }
+        }
+
+        @Override
+        public String getTaskName() {
+            return detached != null ? detached.getTaskName() : store.getTaskName(row);
+        }
+
+        @Override
+        public void setTaskName(String taskName) {
+            if (detached != null) {
+                detached.setTaskName(taskName);
+            } else if (!Objects.equals(getTaskName(), taskName)) {
+                store.taskNames[row] = taskName;
+                markDirty(Field.TASK_NAME);
+            }
+        }
+
+        @Override
+        public String getCategory() {
+            return detached != null ? detached.getCategory() : store.getCategory(row);
+        }
+
+        @Override
+        public void setCategory(String category) {
+            if (detached != null) {
+                detached.setCategory(category);
+            } else if (!Objects.equals(getCategory(), category)) {
+                store.categoryCodes[row] = store.encodeCategory(category);
+                markDirty(Field.CATEGORY);
+            }
+        }
+
+        @Override
+        public String getDescription() {
+            return detached != null ? detached.getDescription() : store.getDescription(row);
+        }
+
+        @Override
+        public void setDescription(String description) {
+            if (detached != null) {
+                detached.setDescription(description);
+            } else if (!Objects.equals(getDescription(), description)) {
+                store.descriptions[row] = description;
+                markDirty(Field.DESCRIPTION);
+            }
+        }
+
+        @Override
+        public boolean isCompleted() {
+            return detached != null ? detached.isCompleted() : store.isCompleted(row);
+        }
+
+        @Override
+        public void setCompleted(boolean completed) {
+            if (detached != null) {
+                detached.setCompleted(completed);
+            } else if (isCompleted() != completed) {
+                store.completed.set(row, completed);
+                markDirty(Field.COMPLETED);
+            }
+        }
+
+        @Override
+        public LocalDateTime getCreatedAt() {
+            return detached != null ? detached.getCreatedAt() : store.getCreatedAt(row);
+        }
+
+        @Override
+        public void setCreatedAt(LocalDateTime createdAt) {
+            if (detached != null) {
+                detached.setCreatedAt(createdAt);
+                return;
+            }
+            long millis = encode(createdAt);
+            if (store.getCreatedAtMillis(row) != millis) {
+                store.createdAt[row] = millis;
+                markDirty(Field.CREATED_AT);
+            }
+        }
+
+        @Override
+        public LocalDateTime getDeadline() {
+            return detached != null ? detached.getDeadline() : store.getDeadline(row);
+        }
+
+        @Override
+        public void setDeadline(LocalDateTime deadline) {
+            if (detached != null) {
+                detached.setDeadline(deadline);
+                return;
+            }
+            long millis = encode(deadline);
+            if (store.getDeadlineMillis(row) != millis) {
+                store.deadlines[row] = millis;
+                markDirty(Field.DEADLINE);
+            }
+        }
+
+        @Override
+        public int getVersion() {
+            return detached != null ? detached.getVersion() : store.getVersion(row);
+        }
+
+        @Override
+        public void setVersion(int version) {
+            if (detached != null) {
+                detached.setVersion(version);
+                return;
+            }
+            store.checkRow(row);
+            store.versions[row] = version;
+        }
+
+        @Override
+        public void markDirty(Field field) {
+            if (detached != null) {
+                detached.markDirty(field);
+                return;
+            }
+            store.checkRow(row);
+            store.dirtyMasks[row] |= (byte) (1 << field.ordinal());
+        }
+
+        @Override
+        public void clearDirty() {
+            if (detached != null) {
+                detached.clearDirty();
+                return;
+            }
+            store.checkRow(row);
+            store.dirtyMasks[row] = 0;
+        }
+
+        @Override
+        int getDirtyMask() {
+            if (detached != null) {
+                return detached.getDirtyMask();
+            }
+            store.checkRow(row);
+            return store.dirtyMasks[row];
+        }
+    }
+
+    // List of row views; changes made through it go into the store, which reports them back
+    private final class ViewList extends ObservableListBase<Task> {
+        @Override
+        public Task get(int index) {
+            return view(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void add(int index, Task task) {
+            insert(index, task);
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends Task> tasks) {
+            TaskColumnStore.this.addAll(tasks);
+            return !tasks.isEmpty();
+        }
+
+        @Override
+        public Task set(int index, Task task) {
+            return TaskColumnStore.this.set(index, task);
+        }
+
+        @Override
+        public Task remove(int index) {
+            return TaskColumnStore.this.remove(index);
+        }
+
+        @Override
+        public void clear() {
+            TaskColumnStore.this.clear();
+        }
+
+        @Override
+        public boolean setAll(Collection<? extends Task> tasks) {
+            TaskColumnStore.this.setAll(tasks);
+            return true;
+        }
+
+        private void added(int from, int to) {
+            beginChange();
+            nextAdd(from, to);
+            endChange();
+        }
+
+        private void replaced(int row, Task previous) {
+            beginChange();
+            nextSet(row, previous);
+            endChange();
+        }
+
+        private void removed(int row, Task removed) {
+            beginChange();
+            nextRemove(row, removed);
+            endChange();
+        }
+
+        // The removed rows are reported by count only, not copied out
+        private void cleared(int removed) {
+            beginChange();
+            nextRemove(0, Collections.nCopies(removed, (Task) null));
+            endChange();
+        }
+
+        private void reloaded(int removed) {
+            beginChange();
+            nextReplace(0, size, Collections.nCopies(removed, (Task) null));
+            endChange();
+        }
+    }
+}
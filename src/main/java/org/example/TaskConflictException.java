@@ -0,0 +1,37 @@
+package org.example;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Thrown when a task update was made against a version of the row that another
+ * writer has since replaced. Carries the row as it is now, so the caller can
+ * show it or merge into it, and - when the service already tried a field-level
+ * merge - the fields both sides changed.
+ */
+public class TaskConflictException extends SQLException {
+    private final Task current;
+    private final List<String> conflictingFields;
+
+    public TaskConflictException(Task current, List<String> conflictingFields) {
+        super(message(current, conflictingFields));
+        this.current = new Task(current);
+        this.conflictingFields = List.copyOf(conflictingFields);
+    }
+
+    // The task as it is stored now (a copy)
+    public Task getCurrent() {
+        return new Task(current);
+    }
+
+    // Names of the columns changed on both sides; empty if no merge was attempted
+    public List<String> getConflictingFields() {
+        return conflictingFields;
+    }
+
+    private static String message(Task current, List<String> conflictingFields) {
+        String message = "Task " + current.getId() + " was changed by another writer (now at version "
+                + current.getVersion() + ")";
+        return conflictingFields.isEmpty() ? message + "." : message + "; both changed: " + String.join(", ", conflictingFields) + ".";
+    }
+}
@@ -1,144 +1,312 @@
 package org.example;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
-import java.sql.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.time.LocalDateTime;
-import java.time.Instant;
-import java.time.ZoneId;
 
 public class TaskController {
     private static final Logger logger = Logger.getLogger(TaskController.class.getName());
-    private ObservableList<Task> tasks = FXCollections.observableArrayList();
+
+    // The listed tasks, held column by column; tasks is the store's list of row views. The list
+    // is ordered by created_at DESC, id DESC. Tasks are copied into rows, so a row's created_at
+    // only changes when replaceInList re-places it, and a task's position is found by binary
+    // search on that column. Only touched on the JavaFX thread (see onFxThread).
+    private final TaskColumnStore rows = new TaskColumnStore();
+    private ObservableList<Task> tasks = rows.asObservableList();
+
+    // Lazy paging state: the list holds the newest tasks up to nextCursor
+    public static final int PAGE_SIZE = 200;
+    private TaskService taskService;
+    private volatile TaskPage.Cursor nextCursor;
+    private volatile boolean hasMorePages;
+    private volatile int pageGeneration;
+    private final AtomicBoolean loadingPage = new AtomicBoolean();
+
+    // Value the database's change counter (TaskDao.getChangeCount) has while the list matches
+    // the table: set by a load, then advanced by each of our own changes once it is applied to
+    // the list. Any other writer makes the counter run ahead. -1 until the first load.
+    // Only written on the JavaFX thread.
+    private volatile long expectedChangeCount = -1;
+
+    // Told about deadline changes so it never has to rescan the table (optional)
+    private volatile DeadlineScheduler deadlineScheduler;
+
+    public void setDeadlineScheduler(DeadlineScheduler deadlineScheduler) {
+        this.deadlineScheduler = deadlineScheduler;
+    }
+
+    public TaskController() {
+    }
+
+    // Shares a service (and so its cache) with other callers in the same process
+    public TaskController(TaskService taskService) {
+        this.taskService = taskService;
+    }
 
     // Method to add a task to the database
     public void addTask(Task task) {
-        String insertQuery = "INSERT INTO tasks (task_name, category, description, completed, created_at, deadline) VALUES (?, ?, ?, ?, ?, ?)";
-        try (Connection connection = DatabaseHelper.getConnection();
-             PreparedStatement statement = connection.prepareStatement(insertQuery, Statement.RETURN_GENERATED_KEYS)) {
-
-            statement.setString(1, task.getTaskName());
-            statement.setString(2, task.getCategory());
-            statement.setString(3, task.getDescription());
-            statement.setBoolean(4, task.isCompleted());
-            statement.setTimestamp(5, Timestamp.valueOf(task.getCreatedAt()));
-            statement.setTimestamp(6, task.getDeadline() != null ? Timestamp.valueOf(task.getDeadline()) : null);
-
-            int affectedRows = statement.executeUpdate();
-
-            if (affectedRows > 0) {
-                try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        int generatedId = generatedKeys.getInt(1);
-                        task.setId(generatedId);  // Set the generated ID to the task
-                        logger.info("Task added successfully with ID: " + task.getId());
-                    }
-                }
-            } else {
-                logger.warning("No rows affected while adding the task.");
+        TaskMetrics.Sample sample = TaskMetrics.CONTROLLER_ADD.start();
+        try {
+            taskService().addTask(task);
+            sample.stop(1);
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine("Task added successfully with ID: " + task.getId());
+            }
+            if (deadlineScheduler != null) {
+                deadlineScheduler.taskSaved(task);
             }
+            onFxThread(() -> {
+                insertSorted(task);
+                countOwnChanges(1);
+            });
         } catch (SQLException e) {
+            sample.fail();
             logger.log(Level.SEVERE, "Error adding task: " + e.getMessage(), e);
         }
     }
 
-    // Method to update an existing task in the database
+    // Method to update an existing task in the database. A task read from the database carries
+    // its version: if another writer has changed the row since, nothing is written and the list
+    // shows the current row instead (use updateTask(base, edited) to merge instead).
     public void updateTask(Task task) {
         if (task == null || task.getId() <= 0) {
             logger.warning("Attempted to update task with invalid ID: " + (task != null ? task.getId() : "null"));
             return;
         }
 
-        logger.info("Updating task with ID: " + task.getId());
+        try {
+            save(task, () -> taskService().updateTask(task));
+        } catch (TaskConflictException e) {
+            logger.warning(e.getMessage());
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error updating task with ID: " + task.getId(), e);
+        }
+    }
 
-        String updateQuery = "UPDATE tasks SET task_name = ?, category = ?, description = ?, completed = ?, created_at = ?, deadline = ? WHERE id = ?";
-        try (Connection connection = DatabaseHelper.getConnection();
-             PreparedStatement statement = connection.prepareStatement(updateQuery)) {
+    // Method to save an edit of base (the task as it was shown), merging with changes other
+    // writers made in between. Throws TaskConflictException, after showing the current row,
+    // if both sides changed the same field.
+    public void updateTask(Task base, Task edited) throws SQLException {
+        if (edited.getId() <= 0 || edited.getId() != base.getId()) {
+            throw new IllegalArgumentException("Edited task must have the base task's ID: " + edited.getId());
+        }
+        try {
+            save(edited, () -> taskService().updateTask(base, edited));
+        } catch (SQLException e) {
+            if (!(e instanceof TaskConflictException)) {
+                logger.log(Level.SEVERE, "Error updating task with ID: " + edited.getId(), e);
+            }
+            throw e;
+        }
+    }
 
-            statement.setString(1, task.getTaskName());
-            statement.setString(2, task.getCategory());
-            statement.setString(3, task.getDescription());
-            statement.setBoolean(4, task.isCompleted());
-            statement.setTimestamp(5, Timestamp.valueOf(task.getCreatedAt()));
-            statement.setTimestamp(6, task.getDeadline() != null ? Timestamp.valueOf(task.getDeadline()) : null);
-            statement.setInt(7, task.getId());
+    private void save(Task task, TaskUpdate update) throws SQLException {
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Updating task with ID: " + task.getId());
+        }
 
-            int rowsUpdated = statement.executeUpdate();
-            if (rowsUpdated > 0) {
-                logger.info("Task updated successfully with ID: " + task.getId());
-            } else {
-                logger.warning("No task found with ID: " + task.getId());
-            }
+        TaskMetrics.Sample sample = TaskMetrics.CONTROLLER_UPDATE.start();
+        boolean updated;
+        try {
+            updated = update.run();
+        } catch (TaskConflictException e) {
+            sample.stop(0);
+            Task current = e.getCurrent();
+            onFxThread(() -> replaceInList(current));
+            throw e;
         } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error updating task with ID: " + task.getId(), e);
+            sample.fail();
+            throw e;
         }
+        sample.stop(updated ? 1 : 0);
+        if (updated) {
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine("Task updated successfully with ID: " + task.getId());
+            }
+            if (deadlineScheduler != null) {
+                deadlineScheduler.taskSaved(task);
+            }
+            onFxThread(() -> {
+                replaceInList(task);
+                countOwnChanges(1);
+            });
+        } else {
+            logger.warning("No task found with ID: " + task.getId());
+        }
+    }
+
+    @FunctionalInterface
+    private interface TaskUpdate {
+        boolean run() throws SQLException;
     }
 
     // Method to delete a task from the database
     public void deleteTask(int taskId) throws SQLException {
-        String query = "DELETE FROM tasks WHERE id = ?";
-
-        try (Connection connection = DatabaseHelper.getConnection();
-             PreparedStatement statement = connection.prepareStatement(query)) {
-
-            statement.setInt(1, taskId);
-
-            int rowsAffected = statement.executeUpdate();
-            if (rowsAffected > 0) {
-                logger.info("Task deleted successfully.");
+        TaskMetrics.Sample sample = TaskMetrics.CONTROLLER_DELETE.start();
+
+        try {
+            taskService().deleteTask(taskId);
+            sample.stop(1);
+            logger.fine("Task deleted successfully.");
+            if (deadlineScheduler != null) {
+                deadlineScheduler.taskDeleted(taskId);
             }
+            onFxThread(() -> {
+                removeFromList(taskId);
+                countOwnChanges(1);
+            });
         } catch (SQLException e) {
+            sample.fail();
             logger.log(Level.SEVERE, "Error deleting task: " + e.getMessage(), e);
             throw e;
         }
     }
 
-    // Method to load all tasks from the database
+    // Method to load the first page of tasks, replacing the list (loadNextPage fetches the rest on demand)
+    public void loadFirstPage() throws SQLException {
+        int generation = ++pageGeneration;
+        // Read before the page, so a change landing in between can only make the list look stale
+        long changeCount = taskService().getChangeCount();
+        TaskPage page = taskService().getTasksPage(null, PAGE_SIZE, TaskPage.Sort.NEWEST_FIRST);
+        onFxThread(() -> {
+            if (generation != pageGeneration) {
+                return;
+            }
+            expectedChangeCount = changeCount;
+            tasks.setAll(page.getTasks());
+            nextCursor = page.getNextCursor();
+            hasMorePages = page.hasMore();
+        });
+    }
+
+    // Method to append the next page of tasks; returns false if there is nothing more to load
+    // or a page is already being fetched
+    public boolean loadNextPage() throws SQLException {
+        if (!hasMorePages || !loadingPage.compareAndSet(false, true)) {
+            return false;
+        }
+        int generation = pageGeneration;
+        TaskPage page;
+        try {
+            page = taskService().getTasksPage(nextCursor, PAGE_SIZE, TaskPage.Sort.NEWEST_FIRST);
+        } catch (SQLException e) {
+            loadingPage.set(false);
+            logger.log(Level.SEVERE, "Error loading next page of tasks: " + e.getMessage(), e);
+            throw e;
+        }
+        onFxThread(() -> {
+            if (generation == pageGeneration) {
+                List<Task> fresh = new ArrayList<>(page.getTasks().size());
+                for (Task task : page.getTasks()) {
+                    // Skip rows already added locally (e.g. an insert that landed inside this page)
+                    if (rows.indexOfId(task.getId()) < 0) {
+                        fresh.add(task);
+                    }
+                }
+                tasks.addAll(fresh);
+                nextCursor = page.getNextCursor();
+                hasMorePages = page.hasMore();
+            }
+            loadingPage.set(false);
+        });
+        return true;
+    }
+
+    public boolean hasMorePages() {
+        return hasMorePages;
+    }
+
+    public boolean isLoadingPage() {
+        return loadingPage.get();
+    }
+
+    // Created lazily so the DAO's setup runs on the first (background) page load
+    private synchronized TaskService taskService() {
+        if (taskService == null) {
+            taskService = new TaskService();
+        }
+        return taskService;
+    }
+
+    // The service every read and write above goes through (for exports and imports in the UI)
+    public TaskService getTaskService() {
+        return taskService();
+    }
+
+    // Method to load all tasks from the database (explicit full reload; mutations above update the list in place)
     public void loadTasks() throws SQLException {
-        String query = "SELECT * FROM tasks ORDER BY created_at DESC";
+        TaskMetrics.Sample sample = TaskMetrics.CONTROLLER_LOAD.start();
 
-        try (Connection connection = DatabaseHelper.getConnection();
-             Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery(query)) {
+        try {
+            long changeCount = taskService().getChangeCount();
+            // Straight into columns, already in list order: no Task object per row
+            TaskColumnStore loaded = taskService().getAllTasksColumnar();
 
-            tasks.clear();
+            sample.stop(loaded.size());
 
-            while (resultSet.next()) {
-                int taskId = resultSet.getInt("id");
-                if (taskId <= 0) {
-                    logger.warning("Invalid task ID found: " + taskId);
-                    continue;
+            // One change notification for the whole reload
+            int generation = ++pageGeneration;
+            onFxThread(() -> {
+                if (generation != pageGeneration) {
+                    return;
                 }
-
-                // Convert and add task to the ObservableList
-                long createdAtMillis = resultSet.getLong("created_at");
-                LocalDateTime createdAt = convertMillisToLocalDateTime(createdAtMillis);
-                long deadlineMillis = resultSet.getLong("deadline");
-                LocalDateTime deadline = resultSet.wasNull() ? null : convertMillisToLocalDateTime(deadlineMillis);
-
-                Task task = new Task(
-                        taskId,
-                        resultSet.getString("task_name"),
-                        resultSet.getString("category"),
-                        resultSet.getString("description"),
-                        resultSet.getBoolean("completed"),
-                        createdAt,
-                        deadline
-                );
-                tasks.add(task);
-            }
+                expectedChangeCount = changeCount;
+                hasMorePages = false;
+                nextCursor = null;
+                rows.load(loaded);
+            });
         } catch (SQLException e) {
+            sample.fail();
             logger.log(Level.SEVERE, "Error loading tasks: " + e.getMessage(), e);
             throw e;
         }
     }
 
-    // Helper method to convert milliseconds to LocalDateTime
-    private LocalDateTime convertMillisToLocalDateTime(long millis) {
-        return Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()).toLocalDateTime();
+    // Method to show a snapshot's tasks as if they had just been loaded (on the JavaFX thread,
+    // before the first load). Check isInSync() afterwards and reload if it is stale.
+    public void restoreSnapshot(TaskSnapshot snapshot) {
+        pageGeneration++;
+        tasks.setAll(snapshot.getTasks());
+        nextCursor = snapshot.getNextCursor();
+        hasMorePages = snapshot.hasMore();
+        expectedChangeCount = snapshot.getChangeCount();
+    }
+
+    // Method to check that no one else has changed the tasks table since the list was loaded.
+    // Our own changes still on their way to the list also count as a difference.
+    public boolean isInSync() throws SQLException {
+        // Read first: everything it includes is already in the database when the counter is read
+        long expected = expectedChangeCount;
+        return expected >= 0 && taskService().getChangeCount() == expected;
+    }
+
+    // Method to save the list for the next launch (on the JavaFX thread, after background work
+    // has stopped). A list that no longer matches the table deletes the old snapshot instead.
+    public boolean writeSnapshot(Path file) throws IOException, SQLException {
+        long expected = expectedChangeCount;
+        if (!isInSync()) {
+            TaskSnapshot.delete(file);
+            return false;
+        }
+        TaskSnapshot.write(file, expected, tasks, nextCursor, hasMorePages);
+        return true;
+    }
+
+    // Called on the JavaFX thread once one of our own writes is reflected in the list
+    private void countOwnChanges(int changes) {
+        if (expectedChangeCount >= 0) {
+            expectedChangeCount += changes;
+        }
     }
 
     // Method to retrieve the ObservableList of tasks
@@ -146,104 +314,200 @@ public class TaskController {
         return tasks;
     }
 
-    // Method to retrieve a specific task by its ID
-    public Task getTaskById(int taskId) throws SQLException {
-        String query = "SELECT * FROM tasks WHERE id = ?";
-
-        try (Connection connection = DatabaseHelper.getConnection();
-             PreparedStatement statement = connection.prepareStatement(query)) {
-
-            statement.setInt(1, taskId);
-
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return new Task(
-                            resultSet.getInt("id"),  // Retrieve and set the ID
-                            resultSet.getString("task_name"),
-                            resultSet.getString("category"),
-                            resultSet.getString("description"),
-                            resultSet.getBoolean("completed"),
-                            resultSet.getTimestamp("created_at").toLocalDateTime(),
-                            resultSet.getTimestamp("deadline") != null
-                                    ? resultSet.getTimestamp("deadline").toLocalDateTime() : null
-                    );
-                }
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error retrieving task by ID: " + e.getMessage(), e);
-            throw e;
+    // The database work above may run on a background thread; list changes must happen on
+    // the JavaFX thread. Without a running toolkit (headless use) they are applied directly.
+    private static void onFxThread(Runnable change) {
+        if (Platform.isFxApplicationThread()) {
+            change.run();
+            return;
+        }
+        try {
+            Platform.runLater(change);
+        } catch (IllegalStateException toolkitNotRunning) {
+            change.run();
         }
-        return null;
     }
 
-    // Method to mark a task as completed in the database
-    public void markTaskAsCompleted(int taskId) throws SQLException {
-        String query = "UPDATE tasks SET completed = TRUE WHERE id = ?";
+    // Inserts a new task at its sorted position
+    private void insertSorted(Task task) {
+        if (rows.indexOfId(task.getId()) >= 0) {
+            replaceInList(task);
+            return;
+        }
+        int index = searchIndex(sortKey(task.getCreatedAt()), task.getId());
+        int insertAt = -(index + 1);
+        if (hasMorePages && insertAt == tasks.size()) {
+            // Older than everything loaded so far: it will arrive with a later page
+            return;
+        }
+        tasks.add(insertAt, task);
+    }
 
-        try (Connection connection = DatabaseHelper.getConnection();
-             PreparedStatement statement = connection.prepareStatement(query)) {
+    // Replaces the listed task with the same ID, moving it if its created_at changed
+    private void replaceInList(Task task) {
+        int index = rows.indexOfId(task.getId());
+        if (index < 0) {
+            insertSorted(task);
+            return;
+        }
+        if (rows.getCreatedAtMillis(index) == sortKey(task.getCreatedAt())) {
+            tasks.set(index, task);
+        } else {
+            tasks.remove(index);
+            insertSorted(task);
+        }
+    }
 
-            statement.setInt(1, taskId);
+    // Removes the task with the given ID from the list, if it is shown
+    private void removeFromList(int taskId) {
+        int index = rows.indexOfId(taskId);
+        if (index >= 0) {
+            tasks.remove(index);
+        }
+    }
 
-            int rowsAffected = statement.executeUpdate();
-            if (rowsAffected > 0) {
-                logger.info("Task marked as completed.");
+    private void setCompletedInList(int taskId, boolean completed, int version) {
+        int index = rows.indexOfId(taskId);
+        if (index >= 0) {
+            Task task = tasks.get(index);
+            task.setCompleted(completed);
+            // A listed copy that was already behind keeps its old version, so its next edit merges;
+            // one that was current now matches the stored row again
+            if (task.getVersion() == version - 1) {
+                task.setVersion(version);
+                task.clearDirty();
             }
+            tasks.set(index, task);
+        }
+    }
+
+    // Binary search over (created_at DESC, id DESC) on the columns; returns -(insertion point + 1) when absent
+    private int searchIndex(long createdAtMillis, int taskId) {
+        int low = 0;
+        int high = rows.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareSortKeys(rows.getCreatedAtMillis(mid), rows.getId(mid), createdAtMillis, taskId);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    // Orders newest first, then highest ID first; tasks without created_at (NO_TIMESTAMP, the
+    // smallest value) go last, as in the database's ORDER BY created_at DESC, id DESC
+    private static int compareSortKeys(long createdAtA, int idA, long createdAtB, int idB) {
+        int byCreatedAt = Long.compare(createdAtB, createdAtA);
+        return byCreatedAt != 0 ? byCreatedAt : Integer.compare(idB, idA);
+    }
+
+    // created_at as the store holds it, so a task compares with the rows at the stored precision
+    private static long sortKey(LocalDateTime createdAt) {
+        return createdAt != null ? TimestampCodec.toEpochMillis(createdAt) : TaskColumnStore.NO_TIMESTAMP;
+    }
+
+    // Method to retrieve a specific task by its ID
+    public Task getTaskById(int taskId) throws SQLException {
+        TaskMetrics.Sample sample = TaskMetrics.CONTROLLER_GET_TASK.start();
+        Task task;
+
+        try {
+            task = taskService().getTaskById(taskId);
         } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error marking task as completed: " + e.getMessage(), e);
+            sample.fail();
+            logger.log(Level.SEVERE, "Error retrieving task by ID: " + e.getMessage(), e);
             throw e;
         }
+        sample.stop(task != null ? 1 : 0);
+        return task;
     }
 
-    // Method to mark a task as incomplete in the database
-    public void markTaskAsIncomplete(int taskId) throws SQLException {
-        String query = "UPDATE tasks SET completed = FALSE WHERE id = ?";
-
-        try (Connection connection = DatabaseHelper.getConnection();
-             PreparedStatement statement = connection.prepareStatement(query)) {
+    // Method to mark tasks as completed in the database (one transaction, one column per row)
+    public BatchResult markTasksCompleted(int[] taskIds) throws SQLException {
+        return setCompleted(taskIds, true);
+    }
 
-            statement.setInt(1, taskId);
+    // Method to mark tasks as incomplete in the database (one transaction, one column per row)
+    public BatchResult markTasksIncomplete(int[] taskIds) throws SQLException {
+        return setCompleted(taskIds, false);
+    }
 
-            int rowsAffected = statement.executeUpdate();
-            if (rowsAffected > 0) {
-                logger.info("Task marked as incomplete.");
-            }
+    private BatchResult setCompleted(int[] taskIds, boolean completed) throws SQLException {
+        TaskMetrics.Sample sample = TaskMetrics.CONTROLLER_SET_COMPLETED.start();
+        BatchResult result;
+        try {
+            result = taskService().setTasksCompleted(taskIds, completed);
         } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error marking task as incomplete: " + e.getMessage(), e);
+            sample.fail();
+            logger.log(Level.SEVERE, "Error marking tasks as " + (completed ? "completed" : "incomplete") + ": " + e.getMessage(), e);
             throw e;
         }
+        sample.stop(result.getAffectedCount());
+
+        int[] versions = result.getVersions();
+        for (int i = 0; i < taskIds.length; i++) {
+            if (result.isAffected(i) && deadlineScheduler != null) {
+                if (completed) {
+                    deadlineScheduler.taskCompleted(taskIds[i]);
+                } else {
+                    deadlineScheduler.taskReopened(taskIds[i]);
+                }
+            }
+        }
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Marked " + result.getAffectedCount() + " task(s) as " + (completed ? "completed." : "incomplete."));
+        }
+        onFxThread(() -> {
+            for (int i = 0; i < taskIds.length; i++) {
+                if (result.isAffected(i)) {
+                    setCompletedInList(taskIds[i], completed, versions[i]);
+                }
+            }
+            countOwnChanges(result.getAffectedCount());
+        });
+        return result;
     }
 
-    // Method to search for tasks by name or description
+    // Method to search for tasks by name or description (FTS5 index, best matches first)
     public ObservableList<Task> searchTasks(String query) throws SQLException {
         ObservableList<Task> searchResults = FXCollections.observableArrayList();
-        String searchQuery = "SELECT * FROM tasks WHERE task_name LIKE ? OR description LIKE ?";
-
-        try (Connection connection = DatabaseHelper.getConnection();
-             PreparedStatement statement = connection.prepareStatement(searchQuery)) {
-
-            statement.setString(1, "%" + query + "%");
-            statement.setString(2, "%" + query + "%");
-
-            try (ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
-                    Task task = new Task(
-                            resultSet.getInt("id"),  // Retrieve and set the ID
-                            resultSet.getString("task_name"),
-                            resultSet.getString("category"),
-                            resultSet.getString("description"),
-                            resultSet.getBoolean("completed"),
-                            resultSet.getTimestamp("created_at").toLocalDateTime(),
-                            resultSet.getTimestamp("deadline") != null
-                                    ? resultSet.getTimestamp("deadline").toLocalDateTime() : null
-                    );
-                    searchResults.add(task);
-                }
+        TaskMetrics.Sample sample = TaskMetrics.CONTROLLER_SEARCH.start();
+
+        try {
+            for (TaskSearch.SearchHit hit : taskService().searchTasks(query, TaskSearch.DEFAULT_LIMIT)) {
+                searchResults.add(hit.getTask());
             }
         } catch (SQLException e) {
+            sample.fail();
             logger.log(Level.SEVERE, "Error searching tasks: " + e.getMessage(), e);
             throw e;
         }
+        sample.stop(searchResults.size());
         return searchResults;
     }
+
+    // Method to run a filtered, sorted query in the database (see TaskQuery) instead of filtering the list
+    public ObservableList<Task> findTasks(TaskQuery query) throws SQLException {
+        try {
+            return FXCollections.observableArrayList(taskService().findTasks(query));
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error querying tasks: " + e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    // Method to count a query's matches per category and per status
+    public TaskQuery.Facets countFacets(TaskQuery query) throws SQLException {
+        try {
+            return taskService().countFacets(query);
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error counting task facets: " + e.getMessage(), e);
+            throw e;
+        }
+    }
 }
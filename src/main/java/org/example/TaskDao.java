@@ -1,11 +1,57 @@
 package org.example;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 
 public interface TaskDao {
+    // Default number of rows sent per executeBatch() call in the bulk methods
+    int DEFAULT_BATCH_SIZE = 500;
+
     void insertTask(Task task) throws SQLException;
     List<Task> getAllTasks() throws SQLException;
-    void updateTask(Task task) throws SQLException;
+    // Every task in one compact columnar store (for very large views), newest first
+    TaskColumnStore getAllTasksColumnar() throws SQLException;
+    Task getTaskById(int taskId) throws SQLException;
+    // Writes the task's dirty fields, or every column if it has none tracked; returns false if no
+    // task has its ID. When the task carries the version it was read at, throws
+    // TaskConflictException if the row has changed since. The task is clean afterwards.
+    boolean updateTask(Task task) throws SQLException;
     void deleteTask(int taskId) throws SQLException;
+    // Removes rows without a usable ID or name (left behind by old versions and bad imports)
+    int deleteInvalidTasks() throws SQLException;
+
+    // Number of row changes ever made to the tasks table, by any writer (one per inserted,
+    // updated or deleted row); equal counts mean an unchanged table
+    long getChangeCount() throws SQLException;
+
+    // Keyset pagination on (created_at, id): pass null for the first page, then the previous page's cursor
+    TaskPage getTasksPage(TaskPage.Cursor after, int limit, TaskPage.Sort sort) throws SQLException;
+
+    // Filtered, sorted query (see TaskQuery) and its per-category and per-status counts
+    List<Task> findTasks(TaskQuery query) throws SQLException;
+    TaskQuery.Facets countFacets(TaskQuery query) throws SQLException;
+
+    // Bulk operations: each call runs in a single transaction, sent in chunks of chunkSize rows
+    BatchResult insertTasks(Collection<Task> tasks, int chunkSize) throws SQLException;
+    BatchResult updateTasks(Collection<Task> tasks, int chunkSize) throws SQLException;
+    BatchResult deleteTasks(int[] taskIds, int chunkSize) throws SQLException;
+    // Writes only the completed flag of each task; the result carries their new versions
+    BatchResult setTasksCompleted(int[] taskIds, boolean completed, int chunkSize) throws SQLException;
+
+    default BatchResult insertTasks(Collection<Task> tasks) throws SQLException {
+        return insertTasks(tasks, DEFAULT_BATCH_SIZE);
+    }
+
+    default BatchResult updateTasks(Collection<Task> tasks) throws SQLException {
+        return updateTasks(tasks, DEFAULT_BATCH_SIZE);
+    }
+
+    default BatchResult deleteTasks(int[] taskIds) throws SQLException {
+        return deleteTasks(taskIds, DEFAULT_BATCH_SIZE);
+    }
+
+    default BatchResult setTasksCompleted(int[] taskIds, boolean completed) throws SQLException {
+        return setTasksCompleted(taskIds, completed, DEFAULT_BATCH_SIZE);
+    }
 }
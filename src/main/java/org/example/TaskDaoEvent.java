@@ -0,0 +1,31 @@
+package org.example;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one timed database operation (see {@link TaskMetrics}). Disabled
+ * unless a recording enables it, e.g.
+ * {@code -XX:StartFlightRecording:settings=profile,+org.example.TaskOperation#enabled=true}.
+ */
+@Name("org.example.TaskOperation")
+@Label("Task Operation")
+@Category({"Task Manager", "Database"})
+@Description("A DAO, controller or storage call timed by TaskMetrics")
+@StackTrace(false)
+class TaskDaoEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Rows")
+    @Description("Rows read or written; -1 when not applicable")
+    long rows;
+
+    @Label("Succeeded")
+    boolean succeeded;
+}
@@ -1,149 +1,344 @@
 package org.example;
 
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class TaskDaoImpl implements TaskDao {
+    private static final Logger logger = Logger.getLogger(TaskDaoImpl.class.getName());
 
-    private Connection connection;
+    // Column list read by mapTask, in its positional order
+    static final String TASK_COLUMNS = "id, task_name, category, description, completed, created_at, deadline, version";
 
-    // Constructor - Establish the database connection
+    private static final String INSERT_SQL = "INSERT INTO tasks (task_name, category, description, completed, deadline, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+    // created_at is written when the task carries one and kept otherwise (tasks built from a form or the API have none).
+    // The update is a compare-and-set on the version the task was read at; version 0 (unknown) writes unconditionally.
+    private static final String UPDATE_SQL = "UPDATE tasks SET task_name = ?, category = ?, description = ?, completed = ?, deadline = ?, " +
+            "created_at = COALESCE(?, created_at), version = version + 1 WHERE id = ? AND (? = 0 OR version = ?)";
+    // A status toggle only writes its own column, so it cannot lose anyone's edit and needs no version check
+    private static final String SET_COMPLETED_SQL = "UPDATE tasks SET completed = ?, version = version + 1 WHERE id = ?";
+    private static final String SELECT_VERSION_SQL = "SELECT version FROM tasks WHERE id = ?";
+    private static final String CHANGE_COUNT_SQL = "SELECT counter FROM task_changes WHERE id = 1";
+
+    // UPDATE statements writing only the fields set in a Task's dirty mask, indexed by the mask.
+    // Built once, so each shape is one SQL text and stays prepared in the StatementCache.
+    private static final int ALL_FIELDS = (1 << Task.Field.values().length) - 1;
+    private static final String[] PARTIAL_UPDATE_SQL = new String[ALL_FIELDS + 1];
+
+    static {
+        for (int mask = 1; mask <= ALL_FIELDS; mask++) {
+            StringBuilder sql = new StringBuilder("UPDATE tasks SET ");
+            for (Task.Field field : Task.Field.values()) {
+                if ((mask & (1 << field.ordinal())) != 0) {
+                    sql.append(field.getColumn()).append(field == Task.Field.CREATED_AT
+                            ? " = COALESCE(?, created_at), " : " = ?, ");
+                }
+            }
+            PARTIAL_UPDATE_SQL[mask] = sql.append("version = version + 1 WHERE id = ? AND (? = 0 OR version = ?)").toString();
+        }
+    }
+    private static final String SELECT_BY_ID_SQL = "SELECT " + TASK_COLUMNS + " FROM tasks WHERE id = ?";
+    private static final String DELETE_SQL = "DELETE FROM tasks WHERE id = ?";
+    private static final String INVALID_TASK_PREDICATE = "id IS NULL OR id <= 0 OR task_name IS NULL OR task_name = ''";
+    private static final String DELETE_INVALID_SQL = "DELETE FROM tasks WHERE " + INVALID_TASK_PREDICATE;
+    private static final String SELECT_INVALID_SQL = "SELECT " + TASK_COLUMNS + " FROM tasks WHERE " + INVALID_TASK_PREDICATE;
+
+    // Keyset paging queries; the row-value comparison lets SQLite seek straight to the cursor
+    private static final String FIRST_PAGE_DESC_SQL = "SELECT " + TASK_COLUMNS + " FROM tasks ORDER BY created_at DESC, id DESC LIMIT ?";
+    private static final String NEXT_PAGE_DESC_SQL = "SELECT " + TASK_COLUMNS + " FROM tasks WHERE (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC LIMIT ?";
+    private static final String FIRST_PAGE_ASC_SQL = "SELECT " + TASK_COLUMNS + " FROM tasks ORDER BY created_at ASC, id ASC LIMIT ?";
+    private static final String NEXT_PAGE_ASC_SQL = "SELECT " + TASK_COLUMNS + " FROM tasks WHERE (created_at, id) > (?, ?) ORDER BY created_at ASC, id ASC LIMIT ?";
+
+    // Constructor - Connections are borrowed from the DatabaseHelper pool per operation
     public TaskDaoImpl() {
         try {
-            connection = DriverManager.getConnection("jdbc:sqlite:tasks.db");
-            initializeDatabase();
+            DatabaseHelper.initializeSchema();
         } catch (SQLException e) {
-            System.err.println("Error connecting to the database: " + e.getMessage());
-            e.printStackTrace(); // For better traceability during development
+            logger.log(Level.SEVERE, "Error initializing the database: " + e.getMessage(), e);
         }
     }
 
-    private void initializeDatabase() {
-        String createTableSQL = "CREATE TABLE IF NOT EXISTS tasks (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "task_name TEXT NOT NULL, " +
-                "category TEXT, " +
-                "description TEXT, " +
-                "completed BOOLEAN, " +
-                "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
-                "deadline TIMESTAMP)";
+    @Override
+    public void insertTask(Task task) throws SQLException {
+        TaskEventBus events = DatabaseHelper.getEventBus();
+        TaskMetrics.Sample sample = TaskMetrics.DAO_INSERT.start();
+        try {
+            DatabaseHelper.write(connection -> {
+                try (PreparedStatement pstmt = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                    bindTaskColumns(pstmt, task);
+                    bindCreatedAt(pstmt, task);
 
-        try (Statement stmt = connection.createStatement()) {
-            stmt.execute(createTableSQL);
-            System.out.println("Table 'tasks' created or already exists.");
+                    pstmt.executeUpdate();
+                    try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                        if (generatedKeys.next()) {
+                            task.setId(generatedKeys.getInt(1));  // Set the generated ID to the task
+                        }
+                    }
+                }
+                task.setVersion(1);
+                task.clearDirty();
+                events.record(connection, TaskEvent.created(task));
+                return null;
+            });
+            sample.stop(1);
         } catch (SQLException e) {
-            System.err.println("Error creating table: " + e.getMessage());
-            e.printStackTrace(); // For better traceability during development
+            sample.fail();
+            logger.log(Level.SEVERE, "Error inserting task: " + e.getMessage(), e);
+            throw new SQLException("Error inserting task into the database", e);
         }
-
-        // Ensure 'created_at' column exists in the table
-        checkAndAddColumn("created_at", "TIMESTAMP DEFAULT CURRENT_TIMESTAMP");
     }
 
-    private void checkAndAddColumn(String columnName, String columnDefinition) {
-        String checkColumnSQL = "PRAGMA table_info(tasks);";
+    @Override
+    public List<Task> getAllTasks() throws SQLException {
+        List<Task> tasks = new ArrayList<>();
+        String sql = "SELECT " + TASK_COLUMNS + " FROM tasks";
+        TaskMetrics.Sample sample = TaskMetrics.DAO_GET_ALL.start();
 
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(checkColumnSQL)) {
+        try (Connection connection = DatabaseHelper.getReadConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
 
-            boolean columnExists = false;
             while (rs.next()) {
-                if (rs.getString("name").equals(columnName)) {
-                    columnExists = true;
-                    break;
-                }
+                tasks.add(mapTask(rs));
             }
+        } catch (SQLException e) {
+            sample.fail();
+            logger.log(Level.SEVERE, "Error retrieving tasks: " + e.getMessage(), e);
+            throw new SQLException("Error retrieving tasks from the database", e);
+        }
+        sample.stop(tasks.size());
+        return tasks;
+    }
 
-            if (!columnExists) {
-                String alterTableSQL = "ALTER TABLE tasks ADD COLUMN " + columnName + " " + columnDefinition;
-                stmt.executeUpdate(alterTableSQL);
-                System.out.println("Column '" + columnName + "' added successfully.");
-            } else {
-                System.out.println("Column '" + columnName + "' already exists.");
-            }
+    @Override
+    public TaskColumnStore getAllTasksColumnar() throws SQLException {
+        String sql = "SELECT " + TASK_COLUMNS + " FROM tasks ORDER BY created_at DESC, id DESC";
+        TaskMetrics.Sample sample = TaskMetrics.DAO_GET_COLUMNAR.start();
 
+        try (Connection connection = DatabaseHelper.getReadConnection();
+             Statement stmt = connection.createStatement()) {
+            // Size the columns up front so a large load does not regrow them
+            int expectedRows;
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM tasks")) {
+                expectedRows = rs.next() ? rs.getInt(1) : 0;
+            }
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                TaskColumnStore store = TaskColumnStore.read(rs, expectedRows);
+                sample.stop(expectedRows);
+                return store;
+            }
         } catch (SQLException e) {
-            System.err.println("Error checking or adding column '" + columnName + "': " + e.getMessage());
-            e.printStackTrace(); // For better traceability
+            sample.fail();
+            logger.log(Level.SEVERE, "Error retrieving tasks: " + e.getMessage(), e);
+            throw new SQLException("Error retrieving tasks from the database", e);
         }
     }
 
+    @Override
+    public Task getTaskById(int taskId) throws SQLException {
+        TaskMetrics.Sample sample = TaskMetrics.DAO_GET_TASK.start();
+
+        try (Connection connection = DatabaseHelper.getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(SELECT_BY_ID_SQL)) {
+            pstmt.setInt(1, taskId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                Task task = rs.next() ? mapTask(rs) : null;
+                sample.stop(task != null ? 1 : 0);
+                return task;
+            }
+        } catch (SQLException e) {
+            sample.fail();
+            logger.log(Level.SEVERE, "Error retrieving task: " + e.getMessage(), e);
+            throw new SQLException("Error retrieving task from the database", e);
+        }
+    }
 
     @Override
-    public void insertTask(Task task) throws SQLException {
-        String sql = "INSERT INTO tasks (task_name, category, description, completed, created_at, deadline) VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, task.getTaskName());
-            pstmt.setString(2, task.getCategory());
-            pstmt.setString(3, task.getDescription());
-            pstmt.setBoolean(4, task.isCompleted());
+    public TaskPage getTasksPage(TaskPage.Cursor after, int limit, TaskPage.Sort sort) throws SQLException {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page size must be a positive integer.");
+        }
+        boolean newestFirst = sort != TaskPage.Sort.OLDEST_FIRST;
+        String sql = after == null
+                ? (newestFirst ? FIRST_PAGE_DESC_SQL : FIRST_PAGE_ASC_SQL)
+                : (newestFirst ? NEXT_PAGE_DESC_SQL : NEXT_PAGE_ASC_SQL);
+
+        List<Task> tasks = new ArrayList<>(limit);
+        Object lastCreatedAt = null;
+        boolean hasMore = false;
+        TaskMetrics.Sample sample = TaskMetrics.DAO_GET_PAGE.start();
 
-            // Handling null deadline
-            if (task.getDeadline() != null) {
-                pstmt.setTimestamp(5, Timestamp.valueOf(task.getDeadline()));
-            } else {
-                pstmt.setNull(5, Types.TIMESTAMP);
+        try (Connection connection = DatabaseHelper.getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            int index = 1;
+            if (after != null) {
+                pstmt.setObject(index++, after.getCreatedAt());
+                pstmt.setInt(index++, after.getId());
             }
+            // Fetch one extra row to learn whether another page follows
+            pstmt.setInt(index, limit + 1);
 
-            pstmt.executeUpdate();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (tasks.size() == limit) {
+                        hasMore = true;
+                        break;
+                    }
+                    lastCreatedAt = rs.getObject(6);
+                    tasks.add(mapTask(rs));
+                }
+            }
         } catch (SQLException e) {
-            System.err.println("Error inserting task: " + e.getMessage());
-            e.printStackTrace(); // For better traceability
-            throw new SQLException("Error inserting task into the database", e);
+            sample.fail();
+            logger.log(Level.SEVERE, "Error retrieving task page: " + e.getMessage(), e);
+            throw new SQLException("Error retrieving a page of tasks from the database", e);
         }
+        sample.stop(tasks.size());
+
+        TaskPage.Cursor next = tasks.isEmpty() ? null
+                : new TaskPage.Cursor(lastCreatedAt, tasks.get(tasks.size() - 1).getId());
+        return new TaskPage(tasks, next, hasMore);
     }
 
     @Override
-    public List<Task> getAllTasks() throws SQLException {
+    public List<Task> findTasks(TaskQuery query) throws SQLException {
         List<Task> tasks = new ArrayList<>();
-        String sql = "SELECT * FROM tasks";
+        TaskMetrics.Sample sample = TaskMetrics.DAO_FIND.start();
 
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                // Ensure the Task constructor has the correct number of parameters
-                Task task = new Task(
-                        rs.getString("task_name"),
-                        rs.getString("category"),
-                        rs.getString("description"),
-                        rs.getBoolean("completed"),
-                        rs.getTimestamp("created_at").toLocalDateTime(),
-                        rs.getTimestamp("deadline") != null ? rs.getTimestamp("deadline").toLocalDateTime() : null
-                );
-                tasks.add(task);
+        try (Connection connection = DatabaseHelper.getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(query.selectSql())) {
+            query.bind(pstmt, true);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    tasks.add(mapTask(rs));
+                }
             }
         } catch (SQLException e) {
-            System.err.println("Error retrieving tasks: " + e.getMessage());
-            e.printStackTrace(); // For better traceability
-            throw new SQLException("Error retrieving tasks from the database", e);
+            sample.fail();
+            logger.log(Level.SEVERE, "Error querying tasks: " + e.getMessage(), e);
+            throw new SQLException("Error querying tasks from the database", e);
         }
+        sample.stop(tasks.size());
         return tasks;
     }
 
     @Override
-    public void updateTask(Task task) throws SQLException {
-        String sql = "UPDATE tasks SET task_name = ?, category = ?, description = ?, completed = ?, deadline = ? WHERE id = ?";
+    public TaskQuery.Facets countFacets(TaskQuery query) throws SQLException {
+        Map<String, Integer> categoryCounts = new LinkedHashMap<>();
+        int completedCount = 0;
+        int openCount = 0;
+        TaskMetrics.Sample sample = TaskMetrics.DAO_FACETS.start();
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, task.getTaskName());
-            pstmt.setString(2, task.getCategory());
-            pstmt.setString(3, task.getDescription());
-            pstmt.setBoolean(4, task.isCompleted());
-
-            // Handling null deadline
-            if (task.getDeadline() != null) {
-                pstmt.setTimestamp(5, Timestamp.valueOf(task.getDeadline()));
-            } else {
-                pstmt.setNull(5, Types.TIMESTAMP);
+        try (Connection connection = DatabaseHelper.getReadConnection()) {
+            TaskQuery byCategory = query.withoutCategories();
+            try (PreparedStatement pstmt = connection.prepareStatement(byCategory.facetSql(TaskQuery.Column.CATEGORY))) {
+                byCategory.bind(pstmt, false);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        categoryCounts.put(rs.getString(1), rs.getInt(2));
+                    }
+                }
             }
+            TaskQuery byStatus = query.withoutCompleted();
+            try (PreparedStatement pstmt = connection.prepareStatement(byStatus.facetSql(TaskQuery.Column.COMPLETED))) {
+                byStatus.bind(pstmt, false);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        if (rs.getBoolean(1)) {
+                            completedCount += rs.getInt(2);
+                        } else {
+                            openCount += rs.getInt(2);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            sample.fail();
+            logger.log(Level.SEVERE, "Error counting task facets: " + e.getMessage(), e);
+            throw new SQLException("Error counting task facets in the database", e);
+        }
+        sample.stop(categoryCounts.size() + 2);
+
+        // Largest categories first
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(categoryCounts.entrySet());
+        entries.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+        Map<String, Integer> sorted = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : entries) {
+            sorted.put(entry.getKey(), entry.getValue());
+        }
+
+        // The status facet has every other filter applied, so the total follows from it
+        Boolean completed = query.getCompleted();
+        int total = completed == null ? completedCount + openCount : completed ? completedCount : openCount;
+        return new TaskQuery.Facets(sorted, completedCount, openCount, total);
+    }
+
+    // Maps the current row of a "SELECT " + TASK_COLUMNS query to a Task, including its ID.
+    // Columns are read by position: name lookups cost more than the decoding itself on large loads.
+    static Task mapTask(ResultSet rs) throws SQLException {
+        Task task = new Task(
+                rs.getInt(1),
+                rs.getString(2),
+                rs.getString(3),
+                rs.getString(4),
+                rs.getBoolean(5),
+                TimestampCodec.read(rs, 6),
+                TimestampCodec.read(rs, 7)
+        );
+        task.setVersion(rs.getInt(8));
+        return task;
+    }
 
-            pstmt.setInt(6, task.getId());
-            pstmt.executeUpdate();
+    @Override
+    public boolean updateTask(Task task) throws SQLException {
+        TaskEventBus events = DatabaseHelper.getEventBus();
+        TaskMetrics.Sample sample = TaskMetrics.DAO_UPDATE.start();
+        try {
+            int expectedVersion = task.getVersion();
+            // A task with tracked edits writes only those columns; an untracked one (built from a
+            // form, a file or the API) replaces the row
+            int written = task.isDirty() ? task.getDirtyMask() : ALL_FIELDS;
+            int updated = DatabaseHelper.write(connection -> {
+                Task before = events.snapshot(connection, task.getId());
+                int rows;
+                try (PreparedStatement pstmt = connection.prepareStatement(
+                        written == ALL_FIELDS ? UPDATE_SQL : PARTIAL_UPDATE_SQL[written])) {
+                    if (written == ALL_FIELDS) {
+                        bindUpdate(pstmt, task);
+                    } else {
+                        bindPartialUpdate(pstmt, task, written);
+                    }
+                    rows = pstmt.executeUpdate();
+                }
+                if (rows > 0) {
+                    fillStoredColumns(connection, task, before, expectedVersion, written);
+                    events.record(connection, TaskEvent.updated(before, task));
+                } else if (expectedVersion > 0) {
+                    // Either the row is gone (not found, as for a blind update) or it moved on
+                    Task current = before != null ? before : readTask(connection, task.getId());
+                    if (current != null) {
+                        throw new TaskConflictException(current, List.of());
+                    }
+                }
+                return rows;
+            });
+            sample.stop(updated);
+            return updated > 0;
+        } catch (TaskConflictException e) {
+            sample.stop(0);
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine(e.getMessage());
+            }
+            throw e;
         } catch (SQLException e) {
-            System.err.println("Error updating task: " + e.getMessage());
-            e.printStackTrace(); // For better traceability
+            sample.fail();
+            logger.log(Level.SEVERE, "Error updating task: " + e.getMessage(), e);
             throw new SQLException("Error updating task in the database", e);
         }
     }
@@ -154,38 +349,409 @@ public class TaskDaoImpl implements TaskDao {
             throw new IllegalArgumentException("Invalid task ID: " + taskId);
         }
 
-        // Check if the task exists before attempting to delete
-        String checkExistenceSQL = "SELECT 1 FROM tasks WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(checkExistenceSQL)) {
-            pstmt.setInt(1, taskId);
-            ResultSet rs = pstmt.executeQuery();
+        TaskEventBus events = DatabaseHelper.getEventBus();
+        TaskMetrics.Sample sample = TaskMetrics.DAO_DELETE.start();
+        // Existence check and delete run in the same queued write, so nothing can slip in between
+        int deleted;
+        try {
+            deleted = DatabaseHelper.write(connection -> {
+                // The event snapshot doubles as the existence check when events are recorded
+                Task before = events.snapshot(connection, taskId);
+                if (before == null) {
+                    // Check if the task exists before attempting to delete
+                    String checkExistenceSQL = "SELECT 1 FROM tasks WHERE id = ?";
+                    try (PreparedStatement pstmt = connection.prepareStatement(checkExistenceSQL)) {
+                        pstmt.setInt(1, taskId);
+                        try (ResultSet rs = pstmt.executeQuery()) {
+                            // If no rows returned, task does not exist
+                            if (!rs.next()) {
+                                throw new SQLException("No task found with ID: " + taskId);
+                            }
+                        }
+                    }
+                }
+
+                // Proceed with deletion
+                int rows;
+                try (PreparedStatement pstmt = connection.prepareStatement(DELETE_SQL)) {
+                    pstmt.setInt(1, taskId);
+                    rows = pstmt.executeUpdate();
+                }
+                events.record(connection, TaskEvent.deleted(taskId, before));
+                return rows;
+            });
+        } catch (SQLException e) {
+            sample.fail();
+            throw e;
+        }
+        sample.stop(deleted);
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Task with ID " + taskId + " deleted successfully.");
+        }
+    }
+
+    @Override
+    public int deleteInvalidTasks() throws SQLException {
+        TaskEventBus events = DatabaseHelper.getEventBus();
+        TaskMetrics.Sample sample = TaskMetrics.DAO_DELETE_INVALID.start();
+        try {
+            int deleted = DatabaseHelper.write(connection -> {
+                // Before images of the doomed rows, read in the same write like the other delete paths
+                List<TaskEvent> deletions = new ArrayList<>();
+                if (events.isActive()) {
+                    try (PreparedStatement pstmt = connection.prepareStatement(SELECT_INVALID_SQL);
+                         ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            int taskId = rs.getInt(1);
+                            if (rs.wasNull()) {
+                                continue;  // No ID, so no one can have heard of the row
+                            }
+                            // A Task cannot hold an ID below 1; those rows are reported without a before image
+                            deletions.add(TaskEvent.deleted(taskId, taskId > 0 ? mapTask(rs) : null));
+                        }
+                    }
+                }
+                int rows;
+                try (Statement stmt = connection.createStatement()) {
+                    rows = stmt.executeUpdate(DELETE_INVALID_SQL);
+                }
+                for (TaskEvent deletion : deletions) {
+                    events.record(connection, deletion);
+                }
+                return rows;
+            });
+            sample.stop(deleted);
+            if (deleted > 0) {
+                logger.info("Deleted " + deleted + " invalid task(s).");
+            }
+            return deleted;
+        } catch (SQLException e) {
+            sample.fail();
+            logger.log(Level.SEVERE, "Error deleting invalid tasks: " + e.getMessage(), e);
+            throw new SQLException("Error deleting invalid tasks from the database", e);
+        }
+    }
+
+    @Override
+    public long getChangeCount() throws SQLException {
+        try (Connection connection = DatabaseHelper.getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(CHANGE_COUNT_SQL);
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error reading the change counter: " + e.getMessage(), e);
+            throw new SQLException("Error reading the task change counter", e);
+        }
+    }
+
+    @Override
+    public BatchResult insertTasks(Collection<Task> tasks, int chunkSize) throws SQLException {
+        List<Task> rows = new ArrayList<>(tasks);
+        int[] generatedIds = new int[rows.size()];
+        TaskEventBus events = DatabaseHelper.getEventBus();
+
+        int[] rowCounts = executeBatch(TaskMetrics.DAO_BATCH_INSERT, INSERT_SQL, rows.size(), chunkSize, null,
+                (pstmt, i) -> {
+                    bindTaskColumns(pstmt, rows.get(i));
+                    bindCreatedAt(pstmt, rows.get(i));
+                },
+                (connection, from, to, counts) -> {
+                    // We hold the write transaction, so the rowids of a chunk are consecutive
+                    try (Statement stmt = connection.createStatement();
+                         ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+                        int lastId = rs.next() ? rs.getInt(1) : 0;
+                        for (int i = from; i < to; i++) {
+                            generatedIds[i] = lastId - (to - 1 - i);
+                        }
+                    }
+                    if (events.isActive()) {
+                        for (int i = from; i < to; i++) {
+                            Task created = new Task(rows.get(i));
+                            created.setId(generatedIds[i]);
+                            created.setVersion(1);
+                            events.record(connection, TaskEvent.created(created));
+                        }
+                    }
+                });
+
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).setId(generatedIds[i]);
+            rows.get(i).setVersion(1);
+            rows.get(i).clearDirty();
+        }
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Inserted " + rows.size() + " task(s) in one transaction.");
+        }
+        return new BatchResult(rowCounts, generatedIds);
+    }
 
-            // If no rows returned, task does not exist
-            if (!rs.next()) {
-                throw new SQLException("No task found with ID: " + taskId);
+    @Override
+    public BatchResult updateTasks(Collection<Task> tasks, int chunkSize) throws SQLException {
+        List<Task> rows = new ArrayList<>(tasks);
+        for (Task task : rows) {
+            if (task.getId() <= 0) {
+                throw new IllegalArgumentException("Invalid task ID: " + task.getId());
+            }
+        }
+
+        TaskEventBus events = DatabaseHelper.getEventBus();
+        Task[] befores = new Task[rows.size()];
+        int[] expectedVersions = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            expectedVersions[i] = rows.get(i).getVersion();
+        }
+
+        // A row whose version moved on is left alone and reported as not affected
+        int[] rowCounts = executeBatch(TaskMetrics.DAO_BATCH_UPDATE, UPDATE_SQL, rows.size(), chunkSize,
+                (connection, from, to, counts) -> {
+                    for (int i = from; i < to; i++) {
+                        befores[i] = events.snapshot(connection, rows.get(i).getId());
+                    }
+                },
+                (pstmt, i) -> bindUpdate(pstmt, rows.get(i)),
+                (connection, from, to, counts) -> {
+                    for (int i = from; i < to; i++) {
+                        if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                            fillStoredColumns(connection, rows.get(i), befores[i], expectedVersions[i], ALL_FIELDS);
+                            events.record(connection, TaskEvent.updated(befores[i], rows.get(i)));
+                        }
+                    }
+                });
+        BatchResult result = new BatchResult(rowCounts, new int[0]);
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Updated " + result.getAffectedCount() + " of " + rows.size() + " task(s) in one transaction.");
+        }
+        return result;
+    }
+
+    @Override
+    public BatchResult deleteTasks(int[] taskIds, int chunkSize) throws SQLException {
+        for (int taskId : taskIds) {
+            if (taskId <= 0) {
+                throw new IllegalArgumentException("Invalid task ID: " + taskId);
             }
         }
 
-        // Proceed with deletion
-        String deleteSQL = "DELETE FROM tasks WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(deleteSQL)) {
+        TaskEventBus events = DatabaseHelper.getEventBus();
+        Task[] befores = new Task[taskIds.length];
+
+        int[] rowCounts = executeBatch(TaskMetrics.DAO_BATCH_DELETE, DELETE_SQL, taskIds.length, chunkSize,
+                (connection, from, to, counts) -> {
+                    for (int i = from; i < to; i++) {
+                        befores[i] = events.snapshot(connection, taskIds[i]);
+                    }
+                },
+                (pstmt, i) -> pstmt.setInt(1, taskIds[i]),
+                (connection, from, to, counts) -> {
+                    for (int i = from; i < to; i++) {
+                        if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                            events.record(connection, TaskEvent.deleted(taskIds[i], befores[i]));
+                        }
+                    }
+                });
+        BatchResult result = new BatchResult(rowCounts, new int[0]);
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Deleted " + result.getAffectedCount() + " of " + taskIds.length + " task(s) in one transaction.");
+        }
+        return result;
+    }
+
+    @Override
+    public BatchResult setTasksCompleted(int[] taskIds, boolean completed, int chunkSize) throws SQLException {
+        for (int taskId : taskIds) {
+            if (taskId <= 0) {
+                throw new IllegalArgumentException("Invalid task ID: " + taskId);
+            }
+        }
+
+        TaskEventBus events = DatabaseHelper.getEventBus();
+        Task[] befores = new Task[taskIds.length];
+        int[] versions = new int[taskIds.length];
+
+        int[] rowCounts = executeBatch(TaskMetrics.DAO_SET_COMPLETED, SET_COMPLETED_SQL, taskIds.length, chunkSize,
+                (connection, from, to, counts) -> {
+                    for (int i = from; i < to; i++) {
+                        befores[i] = events.snapshot(connection, taskIds[i]);
+                    }
+                },
+                (pstmt, i) -> {
+                    pstmt.setBoolean(1, completed);
+                    pstmt.setInt(2, taskIds[i]);
+                },
+                (connection, from, to, counts) -> {
+                    for (int i = from; i < to; i++) {
+                        if (counts[i] == 0) {
+                            continue;
+                        }
+                        if (befores[i] == null) {
+                            versions[i] = readVersion(connection, taskIds[i]);
+                            continue;
+                        }
+                        // Only one column is written, so the after image is the before image with it flipped
+                        Task after = new Task(befores[i]);
+                        after.setCompleted(completed);
+                        after.setVersion(befores[i].getVersion() + 1);
+                        after.clearDirty();
+                        versions[i] = after.getVersion();
+                        events.record(connection, TaskEvent.updated(befores[i], after));
+                    }
+                });
+        BatchResult result = new BatchResult(rowCounts, new int[0], versions);
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Marked " + result.getAffectedCount() + " of " + taskIds.length + " task(s) as "
+                    + (completed ? "completed" : "incomplete") + " in one transaction.");
+        }
+        return result;
+    }
+
+    private static void bindTaskColumns(PreparedStatement pstmt, Task task) throws SQLException {
+        pstmt.setString(1, task.getTaskName());
+        pstmt.setString(2, task.getCategory());
+        pstmt.setString(3, task.getDescription());
+        pstmt.setBoolean(4, task.isCompleted());
+
+        TimestampCodec.write(pstmt, 5, task.getDeadline());
+    }
+
+    // created_at for a new row: the task's own value, or now if it has none
+    private static void bindCreatedAt(PreparedStatement pstmt, Task task) throws SQLException {
+        if (task.getCreatedAt() == null) {
+            task.setCreatedAt(LocalDateTime.now());
+        }
+        TimestampCodec.write(pstmt, 6, task.getCreatedAt());
+    }
+
+    // Binds the columns of a PARTIAL_UPDATE_SQL statement in Field order, then the key and version
+    private static void bindPartialUpdate(PreparedStatement pstmt, Task task, int written) throws SQLException {
+        int index = 1;
+        for (Task.Field field : Task.Field.values()) {
+            if ((written & (1 << field.ordinal())) == 0) {
+                continue;
+            }
+            switch (field) {
+                case TASK_NAME -> pstmt.setString(index, task.getTaskName());
+                case CATEGORY -> pstmt.setString(index, task.getCategory());
+                case DESCRIPTION -> pstmt.setString(index, task.getDescription());
+                case COMPLETED -> pstmt.setBoolean(index, task.isCompleted());
+                case CREATED_AT -> TimestampCodec.write(pstmt, index, task.getCreatedAt());
+                case DEADLINE -> TimestampCodec.write(pstmt, index, task.getDeadline());
+            }
+            index++;
+        }
+        pstmt.setInt(index, task.getId());
+        pstmt.setInt(index + 1, task.getVersion());
+        pstmt.setInt(index + 2, task.getVersion());
+    }
+
+    private static void bindUpdate(PreparedStatement pstmt, Task task) throws SQLException {
+        bindTaskColumns(pstmt, task);
+        TimestampCodec.write(pstmt, 6, task.getCreatedAt());
+        pstmt.setInt(7, task.getId());
+        pstmt.setInt(8, task.getVersion());
+        pstmt.setInt(9, task.getVersion());
+    }
+
+    // After an update, copies what the database decided onto the task so callers - the cache,
+    // the list, the event - see the row as it now is: the columns the update did not write (and
+    // a kept created_at) and the new version. Then the task is clean again. Reads the row back
+    // only when neither the before image nor a matched expected version tell.
+    private static void fillStoredColumns(Connection connection, Task task, Task before, int expectedVersion, int written)
+            throws SQLException {
+        Task stored = before;
+        int version = before != null ? before.getVersion() + 1 : 0;
+        if (stored == null && (expectedVersion == 0 || task.getCreatedAt() == null)) {
+            stored = readTask(connection, task.getId());
+            version = stored != null ? stored.getVersion() : 0;
+        } else if (stored == null) {
+            // The version matched, so the unwritten columns are still as the task read them
+            version = expectedVersion + 1;
+        }
+        if (stored != null) {
+            for (Task.Field field : Task.Field.values()) {
+                if ((written & (1 << field.ordinal())) == 0) {
+                    field.set(task, field.get(stored));
+                }
+            }
+            if (task.getCreatedAt() == null) {
+                task.setCreatedAt(stored.getCreatedAt());
+            }
+        }
+        if (version > 0) {
+            task.setVersion(version);
+        }
+        task.clearDirty();
+    }
+
+    private static int readVersion(Connection connection, int taskId) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(SELECT_VERSION_SQL)) {
             pstmt.setInt(1, taskId);
-            pstmt.executeUpdate();
-            System.out.println("Task with ID " + taskId + " deleted successfully.");
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
         }
     }
 
+    private static Task readTask(Connection connection, int taskId) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(SELECT_BY_ID_SQL)) {
+            pstmt.setInt(1, taskId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? mapTask(rs) : null;
+            }
+        }
+    }
+
+    // Runs one statement for rowCount rows via addBatch/executeBatch, chunkSize rows per
+    // round trip, as a single queued write: it commits with its group or not at all.
+    // The optional listeners run on the write's connection around each chunk.
+    private int[] executeBatch(TaskMetrics.Timer timer, String sql, int rowCount, int chunkSize, ChunkListener beforeChunk,
+                               RowBinder binder, ChunkListener afterChunk) throws SQLException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be a positive integer.");
+        }
+        int[] rowCounts = new int[rowCount];
+        if (rowCount == 0) {
+            return rowCounts;
+        }
+        TaskMetrics.Sample sample = timer.start();
 
-    // Method to close the database connection safely
-    public void closeConnection() {
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Database connection closed.");
-            }
+            DatabaseHelper.write(connection -> {
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    for (int from = 0; from < rowCount; from += chunkSize) {
+                        int to = Math.min(from + chunkSize, rowCount);
+                        if (beforeChunk != null) {
+                            beforeChunk.chunk(connection, from, to, rowCounts);
+                        }
+                        for (int i = from; i < to; i++) {
+                            binder.bind(pstmt, i);
+                            pstmt.addBatch();
+                        }
+                        int[] chunkCounts = pstmt.executeBatch();
+                        System.arraycopy(chunkCounts, 0, rowCounts, from, chunkCounts.length);
+                        if (afterChunk != null) {
+                            afterChunk.chunk(connection, from, to, rowCounts);
+                        }
+                    }
+                }
+                return null;
+            });
         } catch (SQLException e) {
-            System.err.println("Error closing the database connection: " + e.getMessage());
-            e.printStackTrace(); // For better traceability
+            sample.fail();
+            logger.log(Level.SEVERE, "Error executing batch: " + e.getMessage(), e);
+            throw new SQLException("Error executing batch against the database", e);
         }
+        sample.stop(rowCount);
+        return rowCounts;
+    }
+
+    @FunctionalInterface
+    private interface RowBinder {
+        void bind(PreparedStatement pstmt, int index) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface ChunkListener {
+        // rowCounts holds the counts of every chunk executed so far
+        void chunk(Connection connection, int from, int to, int[] rowCounts) throws SQLException;
     }
 }
@@ -0,0 +1,73 @@
+package org.example;
+
+/**
+ * One committed change to a task, with snapshots of the row before and after it
+ * (null where the row did not exist). Snapshots are copies and safe to keep.
+ */
+public class TaskEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        // An update that changed completed from false to true
+        COMPLETED,
+        DELETED
+    }
+
+    private final Type type;
+    private final int taskId;
+    private final Task before;
+    private final Task after;
+    private final long timestampMillis;
+
+    public TaskEvent(Type type, int taskId, Task before, Task after, long timestampMillis) {
+        this.type = type;
+        this.taskId = taskId;
+        this.before = before != null ? new Task(before) : null;
+        this.after = after != null ? new Task(after) : null;
+        this.timestampMillis = timestampMillis;
+    }
+
+    public static TaskEvent created(Task after) {
+        return new TaskEvent(Type.CREATED, after.getId(), null, after, System.currentTimeMillis());
+    }
+
+    // UPDATED, or COMPLETED when the update completed the task
+    public static TaskEvent updated(Task before, Task after) {
+        boolean completed = before != null && !before.isCompleted() && after.isCompleted();
+        return new TaskEvent(completed ? Type.COMPLETED : Type.UPDATED, after.getId(), before, after,
+                System.currentTimeMillis());
+    }
+
+    public static TaskEvent deleted(int taskId, Task before) {
+        return new TaskEvent(Type.DELETED, taskId, before, null, System.currentTimeMillis());
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getTaskId() {
+        return taskId;
+    }
+
+    // The row before the change; null for CREATED
+    public Task getBefore() {
+        return before != null ? new Task(before) : null;
+    }
+
+    // The row after the change; null for DELETED
+    public Task getAfter() {
+        return after != null ? new Task(after) : null;
+    }
+
+    // When the change was recorded, in epoch milliseconds
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskEvent{" + type + ", task=" + taskId + ", at=" + timestampMillis + "}";
+    }
+}
@@ -0,0 +1,408 @@
+package org.example;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Change-data-capture stream for the tasks table. Writers record a
+ * {@link TaskEvent} inside the write that makes the change ({@link #record});
+ * the event is published once that write's transaction commits, so subscribers
+ * only ever see committed changes, in commit order.
+ * <p>
+ * Published events go into a fixed-size ring buffer: producers claim a slot with
+ * one atomic increment and never take a lock. A single dispatch thread drains the
+ * buffer and hands each event to the subscribers. Events are published from the
+ * writer thread, which never waits for subscribers: when the buffer is full the
+ * event is dropped and counted ({@link #getDroppedCount}). With the outbox on, a
+ * dropped event keeps its outbox row, and no row from there on is cleared until
+ * the next run replays them. Subscribers still must not wait for database writes
+ * themselves (queue them with the async variants instead).
+ * <p>
+ * With the outbox enabled (-Dtasks.events.outbox=true) every event is also
+ * inserted into task_outbox in the same transaction as the change, and deleted
+ * once it has been dispatched. {@link #replayOutbox} re-publishes whatever a
+ * previous run committed but did not get to dispatch (at-least-once delivery).
+ * <p>
+ * When nothing subscribes and the outbox is off, {@link #isActive} is false and
+ * writers skip the snapshot reads entirely. Bulk imports are not recorded.
+ */
+public class TaskEventBus implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(TaskEventBus.class.getName());
+
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private static final String BEFORE_SQL = "SELECT " + TaskDaoImpl.TASK_COLUMNS + " FROM tasks WHERE id = ?";
+    private static final String OUTBOX_INSERT_SQL = "INSERT INTO task_outbox (type, task_id, recorded_at, " +
+            "before_task_name, before_category, before_description, before_completed, before_created_at, before_deadline, " +
+            "after_task_name, after_category, after_description, after_completed, after_created_at, after_deadline) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String OUTBOX_SELECT_SQL = "SELECT seq, type, task_id, recorded_at, " +
+            "before_task_name, before_category, before_description, before_completed, before_created_at, before_deadline, " +
+            "after_task_name, after_category, after_description, after_completed, after_created_at, after_deadline " +
+            "FROM task_outbox ORDER BY seq";
+    private static final String OUTBOX_DELETE_SQL = "DELETE FROM task_outbox WHERE seq <= ?";
+
+    // Outbox seq of an event without an outbox row (AUTOINCREMENT starts at 1)
+    private static final long NO_OUTBOX_ROW = 0L;
+
+    @FunctionalInterface
+    public interface Subscriber {
+        void onEvent(TaskEvent event);
+    }
+
+    private final boolean outboxEnabled;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    // Ring buffer: slot i holds sequence s when published.get(i) == s. The plain arrays are
+    // written before the volatile publish and read after it, which orders them for the dispatcher.
+    private final int mask;
+    private final TaskEvent[] events;
+    private final long[] outboxSeqs;
+    private final AtomicLongArray published;
+    // Last sequence claimed by a producer, and last one the dispatcher has finished with
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private volatile long consumed = -1;
+    // Events dropped on a full buffer, and the lowest outbox seq among them (kept for replay)
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong firstDroppedOutboxSeq = new AtomicLong(Long.MAX_VALUE);
+
+    private volatile Thread dispatcher;
+    private volatile boolean dispatcherParked;
+    private volatile boolean closed;
+
+    public TaskEventBus(int capacity, boolean outboxEnabled) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be a positive integer.");
+        }
+        // Power of two, so a sequence maps to its slot with a mask
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.events = new TaskEvent[size];
+        this.outboxSeqs = new long[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+        this.outboxEnabled = outboxEnabled;
+    }
+
+    // Bus configured by -Dtasks.events.capacity and -Dtasks.events.outbox
+    public static TaskEventBus fromSystemProperties() {
+        return new TaskEventBus(Integer.getInteger("tasks.events.capacity", DEFAULT_CAPACITY),
+                Boolean.getBoolean("tasks.events.outbox"));
+    }
+
+    public void subscribe(Subscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public void unsubscribe(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    // Subscriber that logs every event at FINE
+    public static Subscriber loggingSubscriber() {
+        return event -> {
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine("Task " + event.getTaskId() + " " + event.getType().name().toLowerCase());
+            }
+        };
+    }
+
+    // Whether writers need to record events at all
+    public boolean isActive() {
+        return outboxEnabled || !subscribers.isEmpty();
+    }
+
+    public boolean isOutboxEnabled() {
+        return outboxEnabled;
+    }
+
+    // Method to read a task's row on the write's own connection (the before or after image of a
+    // change). Returns null when the bus is inactive, so writers can call it unconditionally.
+    public Task snapshot(Connection connection, int taskId) throws SQLException {
+        if (!isActive()) {
+            return null;
+        }
+        try (PreparedStatement pstmt = connection.prepareStatement(BEFORE_SQL)) {
+            pstmt.setInt(1, taskId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? TaskDaoImpl.mapTask(rs) : null;
+            }
+        }
+    }
+
+    // Method to record an event from inside a queued write: it goes to the outbox (if enabled) in
+    // the same transaction, and is published when that transaction commits
+    public void record(Connection connection, TaskEvent event) throws SQLException {
+        if (!isActive()) {
+            return;
+        }
+        long outboxSeq = NO_OUTBOX_ROW;
+        if (outboxEnabled) {
+            try (PreparedStatement pstmt = connection.prepareStatement(OUTBOX_INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                bindOutboxRow(pstmt, event);
+                pstmt.executeUpdate();
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        outboxSeq = keys.getLong(1);
+                    }
+                }
+            }
+        }
+        long seq = outboxSeq;
+        DatabaseHelper.getWriteQueue().afterCommit(() -> publish(event, seq, false));
+    }
+
+    // Method to publish events a previous run left in the outbox. Call it once at startup,
+    // after subscribing and before the first write.
+    public int replayOutbox() throws SQLException {
+        if (!outboxEnabled) {
+            return 0;
+        }
+        int replayed = 0;
+        try (Connection connection = DatabaseHelper.getReadConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(OUTBOX_SELECT_SQL)) {
+            while (rs.next()) {
+                TaskEvent event = new TaskEvent(TaskEvent.Type.valueOf(rs.getString(2)), rs.getInt(3),
+                        readSnapshot(rs, 5, rs.getInt(3)), readSnapshot(rs, 11, rs.getInt(3)), rs.getLong(4));
+                publish(event, rs.getLong(1), true);
+                replayed++;
+            }
+        }
+        if (replayed > 0) {
+            logger.info("Replayed " + replayed + " task event(s) from the outbox.");
+        }
+        return replayed;
+    }
+
+    // Events published but not yet dispatched
+    public int getPendingCount() {
+        return (int) Math.max(0, claimed.get() - consumed);
+    }
+
+    public long getPublishedCount() {
+        return claimed.get() + 1;
+    }
+
+    // Events dropped because the buffer was full when their write committed
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // Method to stop accepting events, dispatch the ones already published and stop the dispatch thread
+    @Override
+    public void close() {
+        closed = true;
+        Thread running = dispatcher;
+        if (running != null) {
+            LockSupport.unpark(running);
+            try {
+                running.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TaskEventBus[published=" + getPublishedCount() + ", pending=" + getPendingCount()
+                + ", dropped=" + getDroppedCount()
+                + ", subscribers=" + subscribers.size() + ", outbox=" + outboxEnabled + "]";
+    }
+
+    // Claims the next slot, fills it and marks it published. While the buffer is full the event is
+    // dropped, or with waitIfFull (replay at startup, never the writer thread) waited for until close.
+    private void publish(TaskEvent event, long outboxSeq, boolean waitIfFull) {
+        if (closed) {
+            // Left in the outbox, if enabled, for the next run
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine("Event bus closed; dropping " + event + ".");
+            }
+            return;
+        }
+        if (dispatcher == null) {
+            startDispatcher();
+        }
+        // Claim only a free slot: a claimed sequence must be filled, or the dispatcher would stall on it
+        long seq;
+        int spins = 0;
+        while (true) {
+            long last = claimed.get();
+            seq = last + 1;
+            if (seq - consumed <= events.length) {
+                if (claimed.compareAndSet(last, seq)) {
+                    break;
+                }
+                continue;
+            }
+            if (!waitIfFull || closed) {
+                drop(event, outboxSeq);
+                return;
+            }
+            wakeDispatcher();
+            if (++spins < 100) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(50_000L);
+            }
+        }
+        int index = (int) seq & mask;
+        events[index] = event;
+        outboxSeqs[index] = outboxSeq;
+        published.set(index, seq);
+        if (dispatcherParked) {
+            wakeDispatcher();
+        }
+    }
+
+    private void drop(TaskEvent event, long outboxSeq) {
+        long count = dropped.incrementAndGet();
+        if (outboxSeq != NO_OUTBOX_ROW) {
+            firstDroppedOutboxSeq.accumulateAndGet(outboxSeq, Math::min);
+        }
+        wakeDispatcher();
+        // The first drop and every thousandth after it, so a flood does not flood the log too
+        if (count == 1 || count % 1000 == 0) {
+            logger.warning("Task event buffer full; dropped " + event + " (" + count + " dropped so far"
+                    + (outboxSeq != NO_OUTBOX_ROW ? ", kept in the outbox for the next run)." : ")."));
+        }
+    }
+
+    private void wakeDispatcher() {
+        Thread running = dispatcher;
+        if (running != null) {
+            LockSupport.unpark(running);
+        }
+    }
+
+    private synchronized void startDispatcher() {
+        if (dispatcher != null || closed) {
+            return;
+        }
+        Thread thread = new Thread(this::dispatchLoop, "tasks-event-dispatch");
+        thread.setDaemon(true);
+        dispatcher = thread;
+        thread.start();
+    }
+
+    private void dispatchLoop() {
+        while (true) {
+            long next = consumed + 1;
+            int index = (int) next & mask;
+            if (published.get(index) != next) {
+                if (closed && claimed.get() < next) {
+                    return;
+                }
+                dispatcherParked = true;
+                // Re-check after announcing the park, so a publish in between is not missed
+                if (published.get(index) != next) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+                }
+                dispatcherParked = false;
+                continue;
+            }
+
+            // Drain everything published so far in one pass
+            long lastOutboxSeq = NO_OUTBOX_ROW;
+            long seq = next;
+            do {
+                TaskEvent event = events[index];
+                long outboxSeq = outboxSeqs[index];
+                events[index] = null;
+                consumed = seq;
+                deliver(event);
+                lastOutboxSeq = Math.max(lastOutboxSeq, outboxSeq);
+                seq++;
+                index = (int) seq & mask;
+            } while (published.get(index) == seq);
+
+            // Rows from the first dropped event on stay in the outbox for the next run's replay
+            long acknowledged = Math.min(lastOutboxSeq, firstDroppedOutboxSeq.get() - 1);
+            if (acknowledged > NO_OUTBOX_ROW) {
+                acknowledge(acknowledged);
+            }
+        }
+    }
+
+    private void deliver(TaskEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.onEvent(event);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Task event subscriber failed on " + event + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    // Outbox rows are written in commit order, so everything up to the last dispatched one is done
+    private void acknowledge(long outboxSeq) {
+        try {
+            DatabaseHelper.submitWrite(connection -> {
+                try (PreparedStatement pstmt = connection.prepareStatement(OUTBOX_DELETE_SQL)) {
+                    pstmt.setLong(1, outboxSeq);
+                    return pstmt.executeUpdate();
+                }
+            }).whenComplete((rows, error) -> {
+                if (error != null) {
+                    logger.log(Level.WARNING, "Could not clear dispatched outbox events: " + error.getMessage(), error);
+                }
+            });
+        } catch (IllegalStateException writeQueueClosed) {
+            // Shutting down: the rows are replayed on the next start
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine("Write queue closed; dispatched outbox events up to " + outboxSeq + " are kept.");
+            }
+        }
+    }
+
+    private static void bindOutboxRow(PreparedStatement pstmt, TaskEvent event) throws SQLException {
+        pstmt.setString(1, event.getType().name());
+        pstmt.setInt(2, event.getTaskId());
+        pstmt.setLong(3, event.getTimestampMillis());
+        bindSnapshot(pstmt, 4, event.getBefore());
+        bindSnapshot(pstmt, 10, event.getAfter());
+    }
+
+    // A snapshot takes six columns; a NULL task_name means there is none (tasks.task_name is NOT NULL)
+    private static void bindSnapshot(PreparedStatement pstmt, int index, Task task) throws SQLException {
+        if (task == null) {
+            for (int i = 0; i < 6; i++) {
+                pstmt.setNull(index + i, Types.NULL);
+            }
+            return;
+        }
+        pstmt.setString(index, task.getTaskName());
+        pstmt.setString(index + 1, task.getCategory());
+        pstmt.setString(index + 2, task.getDescription());
+        pstmt.setBoolean(index + 3, task.isCompleted());
+        TimestampCodec.write(pstmt, index + 4, task.getCreatedAt());
+        TimestampCodec.write(pstmt, index + 5, task.getDeadline());
+    }
+
+    private static Task readSnapshot(ResultSet rs, int index, int taskId) throws SQLException {
+        String taskName = rs.getString(index);
+        if (taskName == null) {
+            return null;
+        }
+        return new Task(taskId, taskName, rs.getString(index + 1), rs.getString(index + 2), rs.getBoolean(index + 3),
+                TimestampCodec.read(rs, index + 4), TimestampCodec.read(rs, index + 5));
+    }
+}
@@ -0,0 +1,925 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streaming import of tasks from CSV (the format written by {@link CsvExporter})
+ * or JSON lines, optionally gzip-compressed. The import runs as a pipeline of
+ * three stages joined by bounded queues:
+ * <ol>
+ *   <li>a reader thread splits the file into records and groups them into chunks,</li>
+ *   <li>a pool of parser threads turns each chunk into validated tasks and rejects,</li>
+ *   <li>the calling thread inserts the tasks in batches through the write queue.</li>
+ * </ol>
+ * A full queue blocks the stage feeding it, so a slow disk or database throttles
+ * the reader instead of filling the heap. Progress is committed in the same
+ * transaction as each batch, so rerunning a failed or cancelled import of an
+ * unchanged file resumes after the last committed record. Rejected records are
+ * appended to {@code <file>.rejects.csv} before their batch commits; a resumed
+ * import drops the rejects of the records it replays, so each reject is listed once.
+ */
+public class TaskImporter {
+    private static final Logger logger = Logger.getLogger(TaskImporter.class.getName());
+
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+    public static final int DEFAULT_BATCH_SIZE = 5000;
+    public static final int DEFAULT_QUEUE_CAPACITY = 8;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO tasks (task_name, category, description, completed, created_at, deadline) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String PROGRESS_SQL =
+            "SELECT fingerprint, records_done, imported, rejected, completed FROM import_progress WHERE source = ?";
+    private static final String SAVE_PROGRESS_SQL =
+            "INSERT INTO import_progress (source, fingerprint, records_done, imported, rejected, completed, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP) ON CONFLICT(source) DO UPDATE SET " +
+            "fingerprint = excluded.fingerprint, records_done = excluded.records_done, imported = excluded.imported, " +
+            "rejected = excluded.rejected, completed = excluded.completed, updated_at = excluded.updated_at";
+
+    // Canonical column order; header names and JSON keys are matched after normalizeKey()
+    private static final String[] COLUMNS = {"id", "taskname", "category", "description", "completed", "createdat", "deadline"};
+    static final int ID = 0, TASK_NAME = 1, CATEGORY = 2, DESCRIPTION = 3, COMPLETED = 4, CREATED_AT = 5, DEADLINE = 6;
+
+    // Marks the end of the reader's output, one per parser thread
+    private static final RawChunk END = new RawChunk(-1, 0, new ArrayList<>());
+
+    public enum Format {
+        CSV,
+        JSON_LINES;
+
+        // Method to pick the format from the file name (.csv, .jsonl or .ndjson, optionally with .gz)
+        public static Format forPath(Path path) {
+            String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (name.endsWith(".gz")) {
+                name = name.substring(0, name.length() - 3);
+            }
+            if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+                return JSON_LINES;
+            }
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            throw new IllegalArgumentException("Unsupported import file type: " + path.getFileName());
+        }
+    }
+
+    // Called after each committed batch with totals for this run
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(long imported, long rejected, double rowsPerSecond);
+    }
+
+    // Outcome of one run of importFile
+    public static final class ImportResult {
+        private final long resumedAfter;
+        private final long imported;
+        private final long rejected;
+        private final long elapsedMillis;
+        private final Path rejectsFile;
+
+        private ImportResult(long resumedAfter, long imported, long rejected, long elapsedMillis, Path rejectsFile) {
+            this.resumedAfter = resumedAfter;
+            this.imported = imported;
+            this.rejected = rejected;
+            this.elapsedMillis = elapsedMillis;
+            this.rejectsFile = rejectsFile;
+        }
+
+        // Records skipped because an earlier run already committed them
+        public long getResumedAfter() {
+            return resumedAfter;
+        }
+
+        public long getImported() {
+            return imported;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        // File listing the rejected records, or null if none were rejected
+        public Path getRejectsFile() {
+            return rejectsFile;
+        }
+
+        public double getRowsPerSecond() {
+            return elapsedMillis == 0 ? 0.0 : imported * 1000.0 / elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ImportResult[imported=%d, rejected=%d, resumedAfter=%d, elapsed=%dms, rowsPerSecond=%.0f]",
+                    imported, rejected, resumedAfter, elapsedMillis, getRowsPerSecond());
+        }
+    }
+
+    private final int parserThreads;
+    private final int chunkSize;
+    private final int batchSize;
+    private final int queueCapacity;
+
+    public TaskImporter() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+                DEFAULT_CHUNK_SIZE, DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public TaskImporter(int parserThreads, int chunkSize, int batchSize, int queueCapacity) {
+        if (parserThreads <= 0 || chunkSize <= 0 || batchSize <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Importer threads, chunk, batch and queue sizes must be positive.");
+        }
+        this.parserThreads = parserThreads;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    // Method to import a file, resuming where an earlier run of the same file stopped
+    public ImportResult importFile(Path source, ProgressListener listener)
+            throws IOException, SQLException, InterruptedException {
+        DatabaseHelper.initializeSchema();
+        Format format = Format.forPath(source);
+        String sourceKey = source.toAbsolutePath().normalize().toString();
+        String fingerprint = Files.size(source) + ":" + Files.getLastModifiedTime(source).toMillis();
+        Path rejectsFile = source.resolveSibling(source.getFileName() + ".rejects.csv");
+
+        Progress progress = loadProgress(sourceKey, fingerprint);
+        if (progress.completed) {
+            logger.info("Import of " + source + " already completed; nothing to do.");
+            return new ImportResult(progress.recordsDone, 0, 0, 0, null);
+        }
+        if (progress.recordsDone == 0) {
+            Files.deleteIfExists(rejectsFile);
+        } else {
+            logger.info("Resuming import of " + source + " after record " + progress.recordsDone + ".");
+            trimRejects(rejectsFile, progress.recordsDone);
+        }
+
+        Pipeline pipeline = new Pipeline(source, format, progress, sourceKey, fingerprint, rejectsFile, listener);
+        return pipeline.run();
+    }
+
+    // One run of the reader -> parsers -> writer pipeline
+    private final class Pipeline {
+        private final Path source;
+        private final Format format;
+        private final Progress progress;
+        private final String sourceKey;
+        private final String fingerprint;
+        private final Path rejectsFile;
+        private final ProgressListener listener;
+
+        private final BlockingQueue<RawChunk> rawChunks = new ArrayBlockingQueue<>(queueCapacity);
+        private final BlockingQueue<ParsedChunk> parsedChunks = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        // Number of chunks the reader produced, -1 until it reaches the end of the file
+        private final AtomicLong chunkCount = new AtomicLong(-1);
+        // Position of each canonical column in a CSV record, set by the reader from the header
+        private volatile int[] csvColumns;
+
+        private long imported;
+        private long rejected;
+        private boolean wroteRejects;
+
+        private Pipeline(Path source, Format format, Progress progress, String sourceKey, String fingerprint,
+                         Path rejectsFile, ProgressListener listener) {
+            this.source = source;
+            this.format = format;
+            this.progress = progress;
+            this.sourceKey = sourceKey;
+            this.fingerprint = fingerprint;
+            this.rejectsFile = rejectsFile;
+            this.listener = listener;
+        }
+
+        private ImportResult run() throws IOException, SQLException, InterruptedException {
+            long start = System.nanoTime();
+            Thread reader = new Thread(this::readRecords, "tasks-import-reader");
+            reader.setDaemon(true);
+            ExecutorService parsers = Executors.newFixedThreadPool(parserThreads, runnable -> {
+                Thread thread = new Thread(runnable, "tasks-import-parser");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            try {
+                reader.start();
+                for (int i = 0; i < parserThreads; i++) {
+                    parsers.execute(this::parseChunks);
+                }
+                writeBatches(start);
+            } finally {
+                reader.interrupt();
+                parsers.shutdownNow();
+            }
+
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            ImportResult result = new ImportResult(progress.recordsDone, imported, rejected, elapsedMillis,
+                    wroteRejects ? rejectsFile : null);
+            logger.info("Imported " + source + ": " + result);
+            return result;
+        }
+
+        // Stage 1: split the file into records and hand them on in numbered chunks
+        private void readRecords() {
+            try (RecordReader records = new RecordReader(openReader(source), format == Format.CSV)) {
+                if (format == Format.CSV) {
+                    String header = records.next();
+                    csvColumns = header != null ? mapHeader(splitCsv(header)) : new int[COLUMNS.length];
+                }
+
+                long recordNumber = 0;
+                long sequence = 0;
+                long firstInChunk = 0;
+                List<String> chunk = new ArrayList<>(chunkSize);
+                String record;
+                while ((record = records.next()) != null) {
+                    recordNumber++;
+                    if (recordNumber <= progress.recordsDone) {
+                        continue;
+                    }
+                    if (chunk.isEmpty()) {
+                        firstInChunk = recordNumber;
+                    }
+                    chunk.add(record);
+                    if (chunk.size() == chunkSize) {
+                        rawChunks.put(new RawChunk(sequence++, firstInChunk, chunk));
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    rawChunks.put(new RawChunk(sequence++, firstInChunk, chunk));
+                }
+                chunkCount.set(sequence);
+                for (int i = 0; i < parserThreads; i++) {
+                    rawChunks.put(END);
+                }
+            } catch (InterruptedException e) {
+                // Cancelled by the writer stage
+            } catch (Exception e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+
+        // Stage 2: parse and validate chunks; any parser may take any chunk
+        private void parseChunks() {
+            try {
+                while (true) {
+                    RawChunk raw = rawChunks.take();
+                    if (raw == END) {
+                        return;
+                    }
+                    parsedChunks.put(parse(raw));
+                }
+            } catch (InterruptedException e) {
+                // Cancelled by the writer stage
+            } catch (RuntimeException e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+
+        private ParsedChunk parse(RawChunk raw) {
+            ParsedChunk parsed = new ParsedChunk(raw.sequence, raw.firstRecord + raw.records.size() - 1);
+            long recordNumber = raw.firstRecord;
+            for (String record : raw.records) {
+                try {
+                    String[] values = format == Format.CSV ? csvValues(record) : jsonValues(record);
+                    parsed.tasks.add(toTask(values));
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    parsed.rejects.add(new Reject(recordNumber, e.getMessage(), record));
+                }
+                recordNumber++;
+            }
+            return parsed;
+        }
+
+        private String[] csvValues(String record) {
+            List<String> fields = splitCsv(record);
+            String[] values = new String[COLUMNS.length];
+            int[] columns = csvColumns;
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (columns[i] >= 0 && columns[i] < fields.size()) {
+                    values[i] = fields.get(columns[i]);
+                }
+            }
+            return values;
+        }
+
+        // Stage 3: commit tasks in record order, batchSize rows per transaction
+        private void writeBatches(long startNanos) throws IOException, SQLException, InterruptedException {
+            // Chunks finished ahead of a slower parser wait here until their turn
+            Map<Long, ParsedChunk> outOfOrder = new HashMap<>();
+            List<Task> batch = new ArrayList<>(batchSize);
+            List<Reject> rejects = new ArrayList<>();
+            long nextSequence = 0;
+            long lastRecord = progress.recordsDone;
+
+            while (true) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException("Import cancelled.");
+                }
+                rethrowFailure();
+                long total = chunkCount.get();
+                if (total >= 0 && nextSequence == total) {
+                    break;
+                }
+
+                ParsedChunk chunk = parsedChunks.poll(100, TimeUnit.MILLISECONDS);
+                if (chunk != null) {
+                    outOfOrder.put(chunk.sequence, chunk);
+                }
+                while ((chunk = outOfOrder.remove(nextSequence)) != null) {
+                    nextSequence++;
+                    batch.addAll(chunk.tasks);
+                    rejects.addAll(chunk.rejects);
+                    lastRecord = chunk.lastRecord;
+                    if (batch.size() >= batchSize || rejects.size() >= batchSize) {
+                        commit(batch, rejects, lastRecord, false, startNanos);
+                    }
+                }
+            }
+            commit(batch, rejects, lastRecord, true, startNanos);
+        }
+
+        // Inserts the batch and records how far the import got in one queued write
+        private void commit(List<Task> batch, List<Reject> rejects, long lastRecord, boolean completed, long startNanos)
+                throws IOException, SQLException {
+            long importedTotal = progress.imported + imported + batch.size();
+            long rejectedTotal = progress.rejected + rejected + rejects.size();
+            // Rejects first: if the write below never commits, the resumed import trims them
+            // and finds them again, while committed progress always has its rejects on disk
+            if (!rejects.isEmpty()) {
+                appendRejects(rejects);
+            }
+            DatabaseHelper.write(connection -> {
+                if (!batch.isEmpty()) {
+                    try (PreparedStatement pstmt = connection.prepareStatement(INSERT_SQL)) {
+                        for (Task task : batch) {
+                            bindTask(pstmt, task);
+                            pstmt.addBatch();
+                        }
+                        pstmt.executeBatch();
+                    }
+                }
+                saveProgress(connection, sourceKey, fingerprint, lastRecord, importedTotal, rejectedTotal, completed);
+                return null;
+            });
+
+            imported += batch.size();
+            rejected += rejects.size();
+            batch.clear();
+            rejects.clear();
+
+            if (listener != null) {
+                double seconds = (System.nanoTime() - startNanos) / 1e9;
+                listener.onProgress(imported, rejected, seconds > 0 ? imported / seconds : 0.0);
+            }
+        }
+
+        // Appends and forces the rejects to disk, so they are there before their batch commits
+        private void appendRejects(List<Reject> rejects) throws IOException {
+            StringBuilder line = new StringBuilder();
+            if (!Files.exists(rejectsFile)) {
+                line.append("Record,Reason,Data\r\n");
+            }
+            for (Reject reject : rejects) {
+                line.append(reject.recordNumber).append(',');
+                CsvExporter.appendField(line, reject.reason).append(',');
+                CsvExporter.appendField(line, reject.record).append("\r\n");
+            }
+            try (FileChannel file = FileChannel.open(rejectsFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer bytes = ByteBuffer.wrap(line.toString().getBytes(StandardCharsets.UTF_8));
+                while (bytes.hasRemaining()) {
+                    file.write(bytes);
+                }
+                file.force(false);
+            }
+            wroteRejects = true;
+        }
+
+        private void rethrowFailure() throws IOException, SQLException {
+            Throwable error = failure.get();
+            if (error == null) {
+                return;
+            }
+            if (error instanceof IOException) {
+                throw (IOException) error;
+            }
+            if (error instanceof SQLException) {
+                throw (SQLException) error;
+            }
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            }
+            throw new IOException("Import failed: " + error.getMessage(), error);
+        }
+    }
+
+    // Validation follows the Task rules: a positive id if one is given, plus a non-blank name
+    // (tasks.task_name is NOT NULL and blank names are removed as invalid on startup).
+    // A record without created_at is a new task created now.
+    static Task toTask(String[] values) {
+        Task task = toTaskUpdate(values);
+        if (task.getCreatedAt() == null) {
+            task.setCreatedAt(LocalDateTime.now());
+        }
+        return task;
+    }
+
+    // Same as toTask, for replacing a stored row: a missing created_at stays null, so the
+    // update keeps the stored one (UPDATE ... created_at = COALESCE(?, created_at))
+    static Task toTaskUpdate(String[] values) {
+        String id = trimToNull(values[ID]);
+        if (id != null) {
+            int parsedId;
+            try {
+                parsedId = Integer.parseInt(id);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Task ID must be a positive integer.");
+            }
+            if (parsedId <= 0) {
+                throw new IllegalArgumentException("Task ID must be a positive integer.");
+            }
+        }
+        String taskName = trimToNull(values[TASK_NAME]);
+        if (taskName == null) {
+            throw new IllegalArgumentException("Task name is required.");
+        }
+
+        return new Task(taskName, values[CATEGORY], values[DESCRIPTION], parseCompleted(values[COMPLETED]),
+                parseTimestamp(values[CREATED_AT], "created at"), parseTimestamp(values[DEADLINE], "deadline"));
+    }
+
+    private static boolean parseCompleted(String value) {
+        String completed = trimToNull(value);
+        if (completed == null) {
+            return false;
+        }
+        switch (completed.toLowerCase(Locale.ROOT)) {
+            case "yes":
+            case "true":
+            case "1":
+                return true;
+            case "no":
+            case "false":
+            case "0":
+                return false;
+            default:
+                throw new IllegalArgumentException("Invalid completed value '" + completed + "'.");
+        }
+    }
+
+    // Accepts what CsvExporter writes: ISO date-times, SQLite's "yyyy-MM-dd HH:mm:ss" and epoch millis
+    private static LocalDateTime parseTimestamp(String value, String column) {
+        String text = trimToNull(value);
+        if (text == null) {
+            return null;
+        }
+        try {
+            if (text.chars().allMatch(Character::isDigit)) {
+                return TimestampCodec.fromEpochMillis(Long.parseLong(text));
+            }
+            return LocalDateTime.parse(text.replace(' ', 'T'));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + " value '" + text + "'.");
+        }
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static void bindTask(PreparedStatement pstmt, Task task) throws SQLException {
+        pstmt.setString(1, task.getTaskName());
+        pstmt.setString(2, task.getCategory());
+        pstmt.setString(3, task.getDescription());
+        pstmt.setBoolean(4, task.isCompleted());
+        TimestampCodec.write(pstmt, 5, task.getCreatedAt());
+        TimestampCodec.write(pstmt, 6, task.getDeadline());
+    }
+
+    // "Task Name", "task_name" and "taskName" all become "taskname"
+    private static String normalizeKey(String key) {
+        StringBuilder normalized = new StringBuilder(key.length());
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static int[] mapHeader(List<String> header) throws IOException {
+        int[] columns = new int[COLUMNS.length];
+        Arrays.fill(columns, -1);
+        for (int i = 0; i < header.size(); i++) {
+            String key = normalizeKey(header.get(i));
+            for (int c = 0; c < COLUMNS.length; c++) {
+                if (COLUMNS[c].equals(key)) {
+                    columns[c] = i;
+                }
+            }
+        }
+        if (columns[TASK_NAME] < 0) {
+            throw new IOException("CSV header has no Task Name column.");
+        }
+        return columns;
+    }
+
+    // Splits one CSV record into fields (RFC 4180: quoted fields may hold commas, "" and line breaks)
+    static List<String> splitCsv(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (inQuotes) {
+                if (c == '"') {
+                    if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (inQuotes) {
+            throw new IllegalArgumentException("Unterminated quoted field.");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Reads one flat JSON object ({"task_name": "...", "completed": true, ...}) into canonical columns
+    static String[] jsonValues(String line) {
+        String[] values = new String[COLUMNS.length];
+        JsonCursor json = new JsonCursor(line);
+        json.expect('{');
+        if (!json.consume('}')) {
+            do {
+                String key = normalizeKey(json.readString());
+                json.expect(':');
+                String value = json.readScalar();
+                for (int c = 0; c < COLUMNS.length; c++) {
+                    if (COLUMNS[c].equals(key)) {
+                        values[c] = value;
+                    }
+                }
+            } while (json.consume(','));
+            json.expect('}');
+        }
+        json.expectEnd();
+        return values;
+    }
+
+    // Minimal reader for flat JSON objects with string, number, boolean and null values
+    private static final class JsonCursor {
+        private final String text;
+        private int pos;
+
+        private JsonCursor(String text) {
+            this.text = text;
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private boolean consume(char expected) {
+            skipWhitespace();
+            if (pos < text.length() && text.charAt(pos) == expected) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char expected) {
+            if (!consume(expected)) {
+                throw new IllegalArgumentException("Malformed JSON: expected '" + expected + "' at position " + pos + ".");
+            }
+        }
+
+        private void expectEnd() {
+            skipWhitespace();
+            if (pos != text.length()) {
+                throw new IllegalArgumentException("Malformed JSON: unexpected content at position " + pos + ".");
+            }
+        }
+
+        private String readScalar() {
+            skipWhitespace();
+            if (pos >= text.length()) {
+                throw new IllegalArgumentException("Malformed JSON: missing value.");
+            }
+            char c = text.charAt(pos);
+            if (c == '"') {
+                return readString();
+            }
+            if (c == '{' || c == '[') {
+                throw new IllegalArgumentException("Unsupported JSON value: nested objects and arrays are not allowed.");
+            }
+            int start = pos;
+            while (pos < text.length() && ",}".indexOf(text.charAt(pos)) < 0 && !Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+            String literal = text.substring(start, pos);
+            if (literal.equals("null")) {
+                return null;
+            }
+            if (literal.equals("true") || literal.equals("false") || literal.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) {
+                return literal;
+            }
+            throw new IllegalArgumentException("Malformed JSON: unexpected value '" + literal + "'.");
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (pos >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'n': value.append('\n'); break;
+                    case 'r': value.append('\r'); break;
+                    case 't': value.append('\t'); break;
+                    case 'b': value.append('\b'); break;
+                    case 'f': value.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw new IllegalArgumentException("Malformed JSON: bad unicode escape.");
+                        }
+                        value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default: value.append(escaped);
+                }
+            }
+            throw new IllegalArgumentException("Malformed JSON: unterminated string.");
+        }
+    }
+
+    private static Reader openReader(Path source) throws IOException {
+        InputStream in = Files.newInputStream(source);
+        if (source.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz")) {
+            in = new GZIPInputStream(in, 64 * 1024);
+        }
+        return new InputStreamReader(in, StandardCharsets.UTF_8);
+    }
+
+    // Splits a character stream into records: lines for JSON lines, quote-aware for CSV.
+    // Blank records are skipped and a leading byte order mark is dropped.
+    private static final class RecordReader implements Closeable {
+        private final Reader in;
+        private final boolean csv;
+        private final char[] buffer = new char[64 * 1024];
+        private final StringBuilder record = new StringBuilder(256);
+        private int position;
+        private int limit;
+        private boolean first = true;
+
+        private RecordReader(Reader in, boolean csv) {
+            this.in = in;
+            this.csv = csv;
+        }
+
+        private String next() throws IOException {
+            while (true) {
+                String next = readRecord();
+                if (next == null || !next.isBlank()) {
+                    return next;
+                }
+            }
+        }
+
+        private String readRecord() throws IOException {
+            record.setLength(0);
+            boolean inQuotes = false;
+            boolean sawInput = false;
+            while (true) {
+                if (position == limit) {
+                    limit = in.read(buffer);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        return sawInput ? finish() : null;
+                    }
+                }
+                char c = buffer[position++];
+                sawInput = true;
+                if (c == '\n' && !inQuotes) {
+                    return finish();
+                }
+                if (csv && c == '"') {
+                    inQuotes = !inQuotes;
+                }
+                record.append(c);
+            }
+        }
+
+        private String finish() {
+            int length = record.length();
+            if (length > 0 && record.charAt(length - 1) == '\r') {
+                record.setLength(length - 1);
+            }
+            if (first) {
+                first = false;
+                if (record.length() > 0 && record.charAt(0) == '\uFEFF') {
+                    record.deleteCharAt(0);
+                }
+            }
+            return record.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    // Method to keep only the rejects of committed records (numbered up to recordsDone). The others
+    // belong to a batch that never committed, or are torn by a crash; the resumed import replays
+    // those records and rejects them again.
+    private static void trimRejects(Path rejectsFile, long recordsDone) throws IOException {
+        if (!Files.exists(rejectsFile)) {
+            return;
+        }
+        StringBuilder kept = new StringBuilder();
+        boolean trimmed = false;
+        try (RecordReader records = new RecordReader(Files.newBufferedReader(rejectsFile, StandardCharsets.UTF_8), true)) {
+            String header = records.next();
+            if (header == null) {
+                return;
+            }
+            kept.append(header).append("\r\n");
+            String record;
+            while ((record = records.next()) != null) {
+                int comma = record.indexOf(',');
+                long recordNumber;
+                try {
+                    recordNumber = comma > 0 ? Long.parseLong(record.substring(0, comma)) : -1;
+                } catch (NumberFormatException e) {
+                    recordNumber = -1;
+                }
+                if (recordNumber > 0 && recordNumber <= recordsDone) {
+                    kept.append(record).append("\r\n");
+                } else {
+                    trimmed = true;
+                }
+            }
+        }
+        if (!trimmed) {
+            return;
+        }
+        Path temp = Files.createTempFile(rejectsFile.toAbsolutePath().getParent(), rejectsFile.getFileName().toString(), ".tmp");
+        try {
+            Files.writeString(temp, kept, StandardCharsets.UTF_8);
+            Files.move(temp, rejectsFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        logger.info("Dropped rejects after record " + recordsDone + " from " + rejectsFile + "; they are replayed.");
+    }
+
+    private static Progress loadProgress(String sourceKey, String fingerprint) throws SQLException {
+        try (Connection connection = DatabaseHelper.getReadConnection();
+             PreparedStatement pstmt = connection.prepareStatement(PROGRESS_SQL)) {
+            pstmt.setString(1, sourceKey);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                // A changed file starts over: record numbers no longer mean the same rows
+                if (rs.next() && fingerprint.equals(rs.getString("fingerprint"))) {
+                    return new Progress(rs.getLong("records_done"), rs.getLong("imported"),
+                            rs.getLong("rejected"), rs.getBoolean("completed"));
+                }
+            }
+        }
+        return new Progress(0, 0, 0, false);
+    }
+
+    private static void saveProgress(Connection connection, String sourceKey, String fingerprint, long recordsDone,
+                                     long imported, long rejected, boolean completed) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(SAVE_PROGRESS_SQL)) {
+            pstmt.setString(1, sourceKey);
+            pstmt.setString(2, fingerprint);
+            pstmt.setLong(3, recordsDone);
+            pstmt.setLong(4, imported);
+            pstmt.setLong(5, rejected);
+            pstmt.setBoolean(6, completed);
+            pstmt.executeUpdate();
+        }
+    }
+
+    // Committed state of an earlier run of the same file
+    private static final class Progress {
+        private final long recordsDone;
+        private final long imported;
+        private final long rejected;
+        private final boolean completed;
+
+        private Progress(long recordsDone, long imported, long rejected, boolean completed) {
+            this.recordsDone = recordsDone;
+            this.imported = imported;
+            this.rejected = rejected;
+            this.completed = completed;
+        }
+    }
+
+    private static final class RawChunk {
+        private final long sequence;
+        private final long firstRecord;
+        private final List<String> records;
+
+        private RawChunk(long sequence, long firstRecord, List<String> records) {
+            this.sequence = sequence;
+            this.firstRecord = firstRecord;
+            this.records = records;
+        }
+    }
+
+    private static final class ParsedChunk {
+        private final long sequence;
+        private final long lastRecord;
+        private final List<Task> tasks = new ArrayList<>();
+        private final List<Reject> rejects = new ArrayList<>();
+
+        private ParsedChunk(long sequence, long lastRecord) {
+            this.sequence = sequence;
+            this.lastRecord = lastRecord;
+        }
+    }
+
+    private static final class Reject {
+        private final long recordNumber;
+        private final String reason;
+        private final String record;
+
+        private Reject(long recordNumber, String reason, String record) {
+            this.recordNumber = recordNumber;
+            this.reason = reason;
+            this.record = record;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Three-way, field-level merge of task edits. Given the task as the editor
+ * read it (base), the editor's version (mine) and the row as another writer
+ * left it (theirs), each column is taken from whichever side changed it. A
+ * column both sides changed to different values is a conflict.
+ */
+public final class TaskMerge {
+
+    private TaskMerge() {
+    }
+
+    // Method to list the columns changed on both sides to different values (empty: mergeable)
+    public static List<String> conflicts(Task base, Task mine, Task theirs) {
+        List<String> conflicts = new ArrayList<>();
+        for (Task.Field field : Task.Field.values()) {
+            Object baseValue = field.get(base);
+            Object mineValue = field.get(mine);
+            Object theirValue = field.get(theirs);
+            if (!Objects.equals(mineValue, baseValue) && !Objects.equals(theirValue, baseValue)
+                    && !Objects.equals(mineValue, theirValue)) {
+                conflicts.add(field.getColumn());
+            }
+        }
+        return conflicts;
+    }
+
+    // Method to move mine onto theirs: columns mine left unchanged take their value, and
+    // mine takes their version so the next compare-and-set is made against it. Only mine's
+    // own edits stay marked dirty, so a partial update still writes just those.
+    public static void rebase(Task base, Task mine, Task theirs) {
+        Set<Task.Field> edited = mine.getDirtyFields();
+        for (Task.Field field : Task.Field.values()) {
+            if (Objects.equals(field.get(mine), field.get(base))) {
+                field.set(mine, field.get(theirs));
+            }
+        }
+        mine.clearDirty();
+        edited.forEach(mine::markDirty);
+        mine.setVersion(theirs.getVersion());
+    }
+}
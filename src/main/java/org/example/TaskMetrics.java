@@ -0,0 +1,290 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide registry of operation timers. Each timer keeps a latency
+ * histogram, call, error and row counts, and emits a {@link TaskDaoEvent} per
+ * call while a JFR recording has that event enabled. A call costs two nanoTime
+ * reads and a few atomic adds; with -Dtasks.metrics.enabled=false the timers do
+ * nothing at all.
+ * <pre>
+ *   TaskMetrics.Sample sample = TaskMetrics.DAO_GET_TASK.start();
+ *   ... sample.stop(rows);   // or sample.fail() on error
+ * </pre>
+ * {@link #snapshot()} reads every timer; {@link #toText()} and {@link #toJson()}
+ * format the snapshot for logs and for the HTTP API.
+ */
+public final class TaskMetrics {
+
+    private static final boolean ENABLED = !"false".equals(System.getProperty("tasks.metrics.enabled"));
+
+    private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+
+    public static final Timer DAO_INSERT = timer("dao.insertTask");
+    public static final Timer DAO_UPDATE = timer("dao.updateTask");
+    public static final Timer DAO_DELETE = timer("dao.deleteTask");
+    public static final Timer DAO_SET_COMPLETED = timer("dao.setTasksCompleted");
+    public static final Timer DAO_DELETE_INVALID = timer("dao.deleteInvalidTasks");
+    public static final Timer DAO_GET_ALL = timer("dao.getAllTasks");
+    public static final Timer DAO_GET_COLUMNAR = timer("dao.getAllTasksColumnar");
+    public static final Timer DAO_GET_TASK = timer("dao.getTaskById");
+    public static final Timer DAO_GET_PAGE = timer("dao.getTasksPage");
+    public static final Timer DAO_FIND = timer("dao.findTasks");
+    public static final Timer DAO_FACETS = timer("dao.countFacets");
+    public static final Timer DAO_BATCH_INSERT = timer("dao.insertTasks");
+    public static final Timer DAO_BATCH_UPDATE = timer("dao.updateTasks");
+    public static final Timer DAO_BATCH_DELETE = timer("dao.deleteTasks");
+
+    public static final Timer CONTROLLER_ADD = timer("controller.addTask");
+    public static final Timer CONTROLLER_UPDATE = timer("controller.updateTask");
+    public static final Timer CONTROLLER_DELETE = timer("controller.deleteTask");
+    public static final Timer CONTROLLER_SET_COMPLETED = timer("controller.setCompleted");
+    public static final Timer CONTROLLER_LOAD = timer("controller.loadTasks");
+    public static final Timer CONTROLLER_GET_TASK = timer("controller.getTaskById");
+    public static final Timer CONTROLLER_SEARCH = timer("controller.searchTasks");
+
+    // Time spent waiting for a pooled connection, and the writer's commits (rows = operations in the group)
+    public static final Timer DB_ACQUIRE_READ = timer("db.acquireRead");
+    public static final Timer DB_ACQUIRE_WRITE = timer("db.acquireWrite");
+    public static final Timer DB_COMMIT = timer("db.commit");
+
+    // Execution of cached prepared statements (see StatementCache): a query until its first row
+    // is ready, an update or batch until it is done (rows = rows changed)
+    public static final Timer DB_EXECUTE_QUERY = timer("db.executeQuery");
+    public static final Timer DB_EXECUTE_UPDATE = timer("db.executeUpdate");
+
+    private TaskMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    // Method to get (or register) the timer with the given name
+    public static Timer timer(String name) {
+        return TIMERS.computeIfAbsent(name, Timer::new);
+    }
+
+    // Method to read every timer that has been called at least once, sorted by name
+    public static List<Snapshot> snapshot() {
+        List<Snapshot> snapshots = new ArrayList<>();
+        for (Timer timer : TIMERS.values()) {
+            if (timer.histogram.getCount() > 0 || timer.errors.sum() > 0) {
+                snapshots.add(timer.snapshot());
+            }
+        }
+        snapshots.sort((a, b) -> a.name.compareTo(b.name));
+        return Collections.unmodifiableList(snapshots);
+    }
+
+    public static void reset() {
+        for (Timer timer : TIMERS.values()) {
+            timer.reset();
+        }
+    }
+
+    // One line per timer, latencies in milliseconds
+    public static String toText() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "%-28s %10s %7s %12s %9s %9s %9s %9s %9s%n",
+                "operation", "calls", "errors", "rows", "mean", "p50", "p90", "p99", "max"));
+        for (Snapshot s : snapshot()) {
+            text.append(String.format(Locale.ROOT, "%-28s %10d %7d %12d %9.3f %9.3f %9.3f %9.3f %9.3f%n",
+                    s.name, s.calls, s.errors, s.rows, s.meanNanos / 1e6, s.p50Nanos / 1e6, s.p90Nanos / 1e6,
+                    s.p99Nanos / 1e6, s.maxNanos / 1e6));
+        }
+        return text.toString();
+    }
+
+    // {"operations": [{"name": ..., "calls": ..., ...}]}, latencies in nanoseconds
+    public static String toJson() {
+        StringBuilder json = new StringBuilder("{\"operations\":[");
+        List<Snapshot> snapshots = snapshot();
+        for (int i = 0; i < snapshots.size(); i++) {
+            Snapshot s = snapshots.get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"name\":\"").append(s.name)
+                    .append("\",\"calls\":").append(s.calls)
+                    .append(",\"errors\":").append(s.errors)
+                    .append(",\"rows\":").append(s.rows)
+                    .append(",\"meanNanos\":").append(Math.round(s.meanNanos))
+                    .append(",\"p50Nanos\":").append(s.p50Nanos)
+                    .append(",\"p90Nanos\":").append(s.p90Nanos)
+                    .append(",\"p99Nanos\":").append(s.p99Nanos)
+                    .append(",\"maxNanos\":").append(s.maxNanos)
+                    .append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    public static final class Timer {
+        private final String name;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+
+        private Timer(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        // Method to start timing one call
+        public Sample start() {
+            if (!ENABLED) {
+                return Sample.DISABLED;
+            }
+            TaskDaoEvent event = new TaskDaoEvent();
+            if (event.isEnabled()) {
+                event.begin();
+            } else {
+                event = null;
+            }
+            return new Sample(this, System.nanoTime(), event);
+        }
+
+        private Snapshot snapshot() {
+            return new Snapshot(name, histogram.getCount(), errors.sum(), rows.sum(), histogram.getMean(),
+                    histogram.getPercentile(50), histogram.getPercentile(90), histogram.getPercentile(99),
+                    histogram.getMax());
+        }
+
+        private void reset() {
+            histogram.reset();
+            errors.reset();
+            rows.reset();
+        }
+    }
+
+    // One timed call; finish it exactly once with stop or fail
+    public static final class Sample {
+        private static final Sample DISABLED = new Sample(null, 0, null);
+
+        private final Timer timer;
+        private final long startNanos;
+        private final TaskDaoEvent event;
+
+        private Sample(Timer timer, long startNanos, TaskDaoEvent event) {
+            this.timer = timer;
+            this.startNanos = startNanos;
+            this.event = event;
+        }
+
+        // The call succeeded having read or written the given number of rows (-1 if not applicable)
+        public void stop(long rowCount) {
+            finish(rowCount, true);
+        }
+
+        public void stop() {
+            finish(-1, true);
+        }
+
+        public void fail() {
+            finish(-1, false);
+        }
+
+        private void finish(long rowCount, boolean succeeded) {
+            if (timer == null) {
+                return;
+            }
+            timer.histogram.record(System.nanoTime() - startNanos);
+            if (!succeeded) {
+                timer.errors.increment();
+            } else if (rowCount > 0) {
+                timer.rows.add(rowCount);
+            }
+            if (event != null) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.operation = timer.name;
+                    event.rows = rowCount;
+                    event.succeeded = succeeded;
+                    event.commit();
+                }
+            }
+        }
+    }
+
+    public static final class Snapshot {
+        private final String name;
+        private final long calls;
+        private final long errors;
+        private final long rows;
+        private final double meanNanos;
+        private final long p50Nanos;
+        private final long p90Nanos;
+        private final long p99Nanos;
+        private final long maxNanos;
+
+        private Snapshot(String name, long calls, long errors, long rows, double meanNanos,
+                         long p50Nanos, long p90Nanos, long p99Nanos, long maxNanos) {
+            this.name = name;
+            this.calls = calls;
+            this.errors = errors;
+            this.rows = rows;
+            this.meanNanos = meanNanos;
+            this.p50Nanos = p50Nanos;
+            this.p90Nanos = p90Nanos;
+            this.p99Nanos = p99Nanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        // Calls that failed, as a fraction of all calls
+        public double getErrorRate() {
+            return calls == 0 ? 0.0 : (double) errors / calls;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public double getMeanNanos() {
+            return meanNanos;
+        }
+
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        public long getP90Nanos() {
+            return p90Nanos;
+        }
+
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s{calls=%d, errors=%d, rows=%d, p50=%.3fms, p99=%.3fms}",
+                    name, calls, errors, rows, p50Nanos / 1e6, p99Nanos / 1e6);
+        }
+    }
+}
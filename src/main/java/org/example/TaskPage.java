@@ -0,0 +1,67 @@
+package org.example;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of tasks from a keyset (seek) query on (created_at, id). Pass
+ * {@link #getNextCursor()} back to {@link TaskDao#getTasksPage} to fetch the page
+ * after this one; unlike OFFSET paging the cost does not grow with the page number.
+ */
+public class TaskPage {
+
+    public enum Sort {
+        NEWEST_FIRST,
+        OLDEST_FIRST
+    }
+
+    /**
+     * Position after the last row of a page. Holds created_at exactly as stored so
+     * the seek predicate compares like with like.
+     */
+    public static final class Cursor {
+        private final Object createdAt;
+        private final int id;
+
+        public Cursor(Object createdAt, int id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+
+        public Object getCreatedAt() {
+            return createdAt;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        @Override
+        public String toString() {
+            return "Cursor{createdAt=" + createdAt + ", id=" + id + "}";
+        }
+    }
+
+    private final List<Task> tasks;
+    private final Cursor nextCursor;
+    private final boolean hasMore;
+
+    public TaskPage(List<Task> tasks, Cursor nextCursor, boolean hasMore) {
+        this.tasks = Collections.unmodifiableList(tasks);
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    // Cursor for the following page, or null when the page is empty
+    public Cursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+}
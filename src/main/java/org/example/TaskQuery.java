@@ -0,0 +1,331 @@
+package org.example;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Composable filter and sort for {@link TaskDao#findTasks} and
+ * {@link TaskDao#countFacets}. Filters are ANDed; the date ranges are half-open
+ * ({@code from <= value < to}) and either bound may be null. The query compiles
+ * to parameterised SQL over the indexed columns; the SQL text depends only on the
+ * query's shape (which filters are set, the sort, paging), not on its values, and
+ * is cached per shape so repeated queries reuse the pool's prepared statements.
+ */
+public class TaskQuery {
+
+    public enum Column {
+        ID("id"),
+        TASK_NAME("task_name"),
+        CATEGORY("category"),
+        DESCRIPTION("description"),
+        COMPLETED("completed"),
+        CREATED_AT("created_at"),
+        DEADLINE("deadline");
+
+        private final String sql;
+
+        Column(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    // Compiled SQL by query shape; shapes are few, so this stays small
+    private static final int MAX_CACHED_SHAPES = 256;
+    private static final Map<String, String> COMPILED = new ConcurrentHashMap<>();
+
+    private final Set<String> categories = new LinkedHashSet<>();
+    private Boolean completed;
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+    private LocalDateTime deadlineFrom;
+    private LocalDateTime deadlineTo;
+    private Boolean hasDeadline;
+    private final List<Column> sortColumns = new ArrayList<>();
+    private final List<Boolean> sortAscending = new ArrayList<>();
+    private int limit;
+    private int offset;
+
+    public TaskQuery() {
+    }
+
+    private TaskQuery(TaskQuery other) {
+        categories.addAll(other.categories);
+        completed = other.completed;
+        createdFrom = other.createdFrom;
+        createdTo = other.createdTo;
+        deadlineFrom = other.deadlineFrom;
+        deadlineTo = other.deadlineTo;
+        hasDeadline = other.hasDeadline;
+        sortColumns.addAll(other.sortColumns);
+        sortAscending.addAll(other.sortAscending);
+        limit = other.limit;
+        offset = other.offset;
+    }
+
+    // Method to match tasks in any of the given categories (null matches uncategorised tasks).
+    // A lone null argument arrives as a null array, and means the same as category((String) null).
+    public TaskQuery category(String... names) {
+        if (names == null) {
+            categories.add(null);
+        } else {
+            Collections.addAll(categories, names);
+        }
+        return this;
+    }
+
+    public TaskQuery completed(boolean value) {
+        completed = value;
+        return this;
+    }
+
+    public TaskQuery createdBetween(LocalDateTime from, LocalDateTime to) {
+        createdFrom = from;
+        createdTo = to;
+        return this;
+    }
+
+    // A deadline range only matches tasks that have a deadline
+    public TaskQuery deadlineBetween(LocalDateTime from, LocalDateTime to) {
+        deadlineFrom = from;
+        deadlineTo = to;
+        return this;
+    }
+
+    public TaskQuery hasDeadline(boolean value) {
+        hasDeadline = value;
+        return this;
+    }
+
+    // Method to add a sort key; keys apply in the order added, with id as the final tie-breaker.
+    // Without any, tasks come newest first like the task table.
+    public TaskQuery orderBy(Column column, boolean ascending) {
+        sortColumns.add(column);
+        sortAscending.add(ascending);
+        return this;
+    }
+
+    // Method to return at most limit tasks (0 = all), skipping the first offset
+    public TaskQuery page(int limit, int offset) {
+        if (limit < 0 || offset < 0) {
+            throw new IllegalArgumentException("Limit and offset must not be negative.");
+        }
+        this.limit = limit;
+        this.offset = offset;
+        return this;
+    }
+
+    // SELECT of TaskDaoImpl.TASK_COLUMNS for this query
+    String selectSql() {
+        return COMPILED.computeIfAbsent(shape("S"), key -> {
+            StringBuilder sql = new StringBuilder("SELECT ").append(TaskDaoImpl.TASK_COLUMNS).append(" FROM tasks");
+            appendWhere(sql);
+            appendOrderBy(sql);
+            if (limit > 0) {
+                sql.append(" LIMIT ? OFFSET ?");
+            } else if (offset > 0) {
+                // SQLite has no OFFSET without LIMIT; a negative limit means none
+                sql.append(" LIMIT -1 OFFSET ?");
+            }
+            return sql.toString();
+        });
+    }
+
+    // (value, count) rows grouped by the given column; paging and sorting do not apply
+    String facetSql(Column groupBy) {
+        return COMPILED.computeIfAbsent(shape("F" + groupBy.ordinal()), key -> {
+            StringBuilder sql = new StringBuilder("SELECT ").append(groupBy.sql).append(", COUNT(*) FROM tasks");
+            appendWhere(sql);
+            return sql.append(" GROUP BY ").append(groupBy.sql).toString();
+        });
+    }
+
+    // Method to bind this query's values in the order the compiled SQL expects
+    void bind(PreparedStatement pstmt, boolean withPaging) throws SQLException {
+        int index = 1;
+        for (String category : categories) {
+            if (category != null) {
+                pstmt.setString(index++, category);
+            }
+        }
+        if (completed != null) {
+            pstmt.setBoolean(index++, completed);
+        }
+        index = bindRange(pstmt, index, createdFrom, createdTo);
+        index = bindRange(pstmt, index, deadlineFrom, deadlineTo);
+        if (withPaging && limit > 0) {
+            pstmt.setInt(index++, limit);
+            pstmt.setInt(index, offset);
+        } else if (withPaging && offset > 0) {
+            pstmt.setInt(index, offset);
+        }
+    }
+
+    // The same query without its category filter (so category facets show every choice)
+    TaskQuery withoutCategories() {
+        TaskQuery copy = new TaskQuery(this);
+        copy.categories.clear();
+        return copy;
+    }
+
+    TaskQuery withoutCompleted() {
+        TaskQuery copy = new TaskQuery(this);
+        copy.completed = null;
+        return copy;
+    }
+
+    Boolean getCompleted() {
+        return completed;
+    }
+
+    // Number of compiled statements currently cached
+    static int getCompiledCount() {
+        return COMPILED.size();
+    }
+
+    // Key of the SQL shape: which predicates are present, not their values
+    private String shape(String kind) {
+        if (COMPILED.size() >= MAX_CACHED_SHAPES) {
+            COMPILED.clear();
+        }
+        StringBuilder key = new StringBuilder(32).append(kind).append('|');
+        int named = 0;
+        for (String category : categories) {
+            if (category != null) {
+                named++;
+            }
+        }
+        key.append(named).append(categories.contains(null) ? 'n' : '-')
+                .append(completed == null ? '-' : 'c')
+                .append(createdFrom == null ? '-' : 'f').append(createdTo == null ? '-' : 't')
+                .append(deadlineFrom == null ? '-' : 'f').append(deadlineTo == null ? '-' : 't')
+                .append(hasDeadline == null ? '-' : hasDeadline ? 'y' : 'n');
+        if (kind.equals("S")) {
+            key.append('|');
+            for (int i = 0; i < sortColumns.size(); i++) {
+                key.append(sortColumns.get(i).ordinal()).append(sortAscending.get(i) ? 'a' : 'd');
+            }
+            key.append(limit > 0 ? "|p" : offset > 0 ? "|o" : "|-");
+        }
+        return key.toString();
+    }
+
+    private void appendWhere(StringBuilder sql) {
+        List<String> predicates = new ArrayList<>();
+        if (!categories.isEmpty()) {
+            List<String> alternatives = new ArrayList<>(2);
+            int named = categories.size() - (categories.contains(null) ? 1 : 0);
+            if (named > 0) {
+                alternatives.add("category IN (" + String.join(", ", Collections.nCopies(named, "?")) + ")");
+            }
+            if (categories.contains(null)) {
+                alternatives.add("category IS NULL");
+            }
+            predicates.add(alternatives.size() == 1 ? alternatives.get(0) : "(" + String.join(" OR ", alternatives) + ")");
+        }
+        if (completed != null) {
+            predicates.add("completed = ?");
+        }
+        if (createdFrom != null) {
+            predicates.add("created_at >= ?");
+        }
+        if (createdTo != null) {
+            predicates.add("created_at < ?");
+        }
+        if (deadlineFrom != null) {
+            predicates.add("deadline >= ?");
+        }
+        if (deadlineTo != null) {
+            predicates.add("deadline < ?");
+        }
+        if (hasDeadline != null) {
+            predicates.add(hasDeadline ? "deadline IS NOT NULL" : "deadline IS NULL");
+        }
+        if (!predicates.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+    }
+
+    private void appendOrderBy(StringBuilder sql) {
+        sql.append(" ORDER BY ");
+        if (sortColumns.isEmpty()) {
+            sql.append("created_at DESC, id DESC");
+            return;
+        }
+        boolean idSorted = false;
+        for (int i = 0; i < sortColumns.size(); i++) {
+            Column column = sortColumns.get(i);
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(column.sql).append(sortAscending.get(i) ? " ASC" : " DESC");
+            idSorted |= column == Column.ID;
+        }
+        if (!idSorted) {
+            // Ties broken by id (the last key's direction) so paging is stable
+            sql.append(", id").append(sortAscending.get(sortAscending.size() - 1) ? " ASC" : " DESC");
+        }
+    }
+
+    private static int bindRange(PreparedStatement pstmt, int index, LocalDateTime from, LocalDateTime to)
+            throws SQLException {
+        if (from != null) {
+            pstmt.setLong(index++, TimestampCodec.toEpochMillis(from));
+        }
+        if (to != null) {
+            pstmt.setLong(index++, TimestampCodec.toEpochMillis(to));
+        }
+        return index;
+    }
+
+    /**
+     * Counts for a query's matching tasks. Each facet ignores its own filter, so the
+     * category counts cover every category and the status counts both statuses,
+     * under all the other filters.
+     */
+    public static final class Facets {
+        private final Map<String, Integer> categoryCounts;
+        private final int completedCount;
+        private final int openCount;
+        private final int total;
+
+        public Facets(Map<String, Integer> categoryCounts, int completedCount, int openCount, int total) {
+            this.categoryCounts = Collections.unmodifiableMap(new LinkedHashMap<>(categoryCounts));
+            this.completedCount = completedCount;
+            this.openCount = openCount;
+            this.total = total;
+        }
+
+        // Count per category, largest first; the null key counts uncategorised tasks
+        public Map<String, Integer> getCategoryCounts() {
+            return categoryCounts;
+        }
+
+        public int getCompletedCount() {
+            return completedCount;
+        }
+
+        public int getOpenCount() {
+            return openCount;
+        }
+
+        // Tasks matching the whole query, all filters included
+        public int getTotal() {
+            return total;
+        }
+
+        @Override
+        public String toString() {
+            return "Facets{total=" + total + ", completed=" + completedCount + ", open=" + openCount
+                    + ", categories=" + categoryCounts + "}";
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package org.example;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Full-text search over task names and descriptions using the {@code tasks_fts}
+ * FTS5 index (created by schema migration 3). Each word of the query is matched
+ * as a prefix, results are ranked by BM25 with the task name weighted above the
+ * description, and each hit carries a highlighted snippet.
+ */
+public final class TaskSearch {
+    private static final Logger logger = Logger.getLogger(TaskSearch.class.getName());
+
+    public static final int DEFAULT_LIMIT = 200;
+
+    // Markers placed around matched terms in snippets
+    public static final String HIGHLIGHT_START = "[";
+    public static final String HIGHLIGHT_END = "]";
+
+    // Words of at most this many tokens are shown around the first match in a snippet
+    private static final int SNIPPET_TOKENS = 12;
+
+    // Rank inside FTS5 and join back to tasks for the top hits only. "rank" is bm25 with the
+    // task name weighted 10:1 over the description (configured when the index is built).
+    // Snippets are built in Java for those rows: FTS5's snippet() needs a second MATCH pass.
+    private static final String SEARCH_SQL =
+            "SELECT t.id, t.task_name, t.category, t.description, t.completed, t.created_at, t.deadline, t.version, top.rank AS score " +
+            "FROM (SELECT rowid, rank FROM tasks_fts WHERE tasks_fts MATCH ? ORDER BY rank LIMIT ?) top " +
+            "JOIN tasks t ON t.id = top.rowid ORDER BY top.rank";
+
+    // Same notion of a token as FTS5's unicode61 tokenizer: runs of letters and digits
+    private static final Pattern TOKEN = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    private TaskSearch() {
+    }
+
+    // A matching task with its BM25 score (lower is better) and highlighted snippet
+    public static final class SearchHit {
+        private final Task task;
+        private final double score;
+        private final String snippet;
+
+        public SearchHit(Task task, double score, String snippet) {
+            this.task = task;
+            this.score = score;
+            this.snippet = snippet;
+        }
+
+        public Task getTask() {
+            return task;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public String getSnippet() {
+            return snippet;
+        }
+    }
+
+    // Method to search using a pooled read connection
+    public static List<SearchHit> search(String query, int limit) throws SQLException {
+        try (Connection connection = DatabaseHelper.getReadConnection()) {
+            return search(connection, query, limit);
+        }
+    }
+
+    // Method to search on the given connection; a query with no searchable words returns no hits
+    public static List<SearchHit> search(Connection connection, String query, int limit) throws SQLException {
+        List<SearchHit> hits = new ArrayList<>();
+        String match = toMatchExpression(query);
+        if (match.isEmpty()) {
+            return hits;
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(SEARCH_SQL)) {
+            statement.setString(1, match);
+            statement.setInt(2, limit);
+            List<String> terms = terms(query);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    Task task = TaskDaoImpl.mapTask(rs);
+                    hits.add(new SearchHit(task, rs.getDouble("score"), snippet(task, terms)));
+                }
+            }
+        }
+        return hits;
+    }
+
+    // Turns free text into an FTS5 query: every word becomes a quoted prefix term, all must match.
+    // Quoting keeps user input from being parsed as FTS5 operators (AND, NEAR, column filters...).
+    public static String toMatchExpression(String query) {
+        StringBuilder match = new StringBuilder();
+        for (String term : terms(query)) {
+            if (match.length() > 0) {
+                match.append(' ');
+            }
+            match.append('"').append(term).append("\"*");
+        }
+        return match.toString();
+    }
+
+    private static List<String> terms(String query) {
+        List<String> terms = new ArrayList<>();
+        if (query == null) {
+            return terms;
+        }
+        for (String word : query.trim().split("\\s+")) {
+            String term = word.replace("\"", "");
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    // Highlights matching words in the task name, or failing that in a window of the description
+    static String snippet(Task task, List<String> terms) {
+        List<String> prefixes = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            prefixes.add(term.toLowerCase(Locale.ROOT));
+        }
+        String highlighted = highlight(task.getTaskName(), prefixes);
+        if (highlighted == null) {
+            highlighted = highlight(task.getDescription(), prefixes);
+        }
+        return highlighted != null ? highlighted : task.getTaskName();
+    }
+
+    // Returns the text around the first match with every matching token marked, or null if nothing matches
+    private static String highlight(String text, List<String> prefixes) {
+        if (text == null) {
+            return null;
+        }
+        List<int[]> tokens = new ArrayList<>();
+        List<Boolean> matches = new ArrayList<>();
+        int firstMatch = -1;
+        Matcher matcher = TOKEN.matcher(text);
+        while (matcher.find()) {
+            String token = matcher.group().toLowerCase(Locale.ROOT);
+            boolean matched = false;
+            for (String prefix : prefixes) {
+                if (token.startsWith(prefix)) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (matched && firstMatch < 0) {
+                firstMatch = tokens.size();
+            }
+            tokens.add(new int[]{matcher.start(), matcher.end()});
+            matches.add(matched);
+        }
+        if (firstMatch < 0) {
+            return null;
+        }
+
+        int from = Math.max(0, Math.min(firstMatch - SNIPPET_TOKENS / 4, tokens.size() - SNIPPET_TOKENS));
+        int to = Math.min(tokens.size(), from + SNIPPET_TOKENS);
+        int start = from == 0 ? 0 : tokens.get(from)[0];
+        int end = to == tokens.size() ? text.length() : tokens.get(to - 1)[1];
+
+        StringBuilder snippet = new StringBuilder();
+        if (from > 0) {
+            snippet.append("...");
+        }
+        int position = start;
+        for (int i = from; i < to; i++) {
+            int[] token = tokens.get(i);
+            if (matches.get(i)) {
+                snippet.append(text, position, token[0])
+                        .append(HIGHLIGHT_START).append(text, token[0], token[1]).append(HIGHLIGHT_END);
+                position = token[1];
+            }
+        }
+        snippet.append(text, position, end);
+        if (to < tokens.size()) {
+            snippet.append("...");
+        }
+        return snippet.toString();
+    }
+
+    // Method to rebuild the index from the tasks table (e.g. after bulk edits with triggers disabled)
+    public static void rebuildIndex() throws SQLException {
+        DatabaseHelper.initializeSchema();
+        try (Connection connection = DatabaseHelper.getWriteConnection()) {
+            rebuildIndex(connection);
+        }
+    }
+
+    public static void rebuildIndex(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("INSERT INTO tasks_fts (tasks_fts, rank) VALUES ('rank', 'bm25(10.0, 1.0)')");
+            stmt.executeUpdate("INSERT INTO tasks_fts (tasks_fts) VALUES ('rebuild')");
+            stmt.executeUpdate("INSERT INTO tasks_fts (tasks_fts) VALUES ('optimize')");
+        }
+        logger.info("Rebuilt full-text search index.");
+    }
+}
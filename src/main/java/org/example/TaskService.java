@@ -1,28 +1,319 @@
 package org.example;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * The one data path for tasks: the UI controller, the HTTP API and the file
+ * exports all read and write through a TaskService, so pooling, caching,
+ * batching, change events and metrics live in one place (TaskDaoImpl) rather
+ * than in each caller's own SQL.
+ */
 public class TaskService {
+    // Merge-and-retry rounds in updateTask(base, edited) before giving up on a busy row
+    private static final int MAX_MERGE_ATTEMPTS = 3;
+
     private TaskDao taskDao;
 
+    // Write-through cache: every mutation below goes to the DAO first, then the cache
+    private final TaskCache cache;
+    // Table change count the cache was filled at (see isCacheComplete)
+    private volatile long completeAtChangeCount = -1;
+
     public TaskService() {
-        this.taskDao = new TaskDaoImpl();
+        this(new TaskDaoImpl(), Integer.getInteger("tasks.cache.maxSize", 10_000));
+    }
+
+    public TaskService(TaskDao taskDao, int maxCacheSize) {
+        this.taskDao = taskDao;
+        this.cache = new TaskCache(maxCacheSize);
     }
 
     public List<Task> getAllTasks() throws SQLException {
-        return taskDao.getAllTasks();
+        if (isCacheComplete()) {
+            return cache.getAll();
+        }
+        // Read before the table, so a write landing in between makes the cache look stale, not current
+        long changeCount = taskDao.getChangeCount();
+        List<Task> tasks = taskDao.getAllTasks();
+        cache.putAll(tasks);
+        completeAtChangeCount = changeCount;
+        return tasks;
+    }
+
+    // Whole table, newest first, held in columns (see TaskColumnStore). Always read from the
+    // database: the rows are not Task objects, so the cache can neither answer nor keep them.
+    public TaskColumnStore getAllTasksColumnar() throws SQLException {
+        return taskDao.getAllTasksColumnar();
+    }
+
+    // Whether the cache holds the whole table as it is now. Other processes' writes never reach
+    // the cache, so it is only trusted while the table's change counter (schema migration 9)
+    // has not moved since it was filled; any write, ours included, ends that.
+    private boolean isCacheComplete() throws SQLException {
+        if (!cache.isComplete()) {
+            return false;
+        }
+        if (taskDao.getChangeCount() == completeAtChangeCount) {
+            return true;
+        }
+        cache.markIncomplete();
+        return false;
+    }
+
+    public Task getTaskById(int taskId) throws SQLException {
+        Task task = cache.get(taskId);
+        if (task == null) {
+            task = taskDao.getTaskById(taskId);
+            if (task != null) {
+                cache.put(task);
+            }
+        }
+        return task;
+    }
+
+    // Reads the row itself, bypassing the cache (which other processes' writes never reach),
+    // and brings the cached copy up to date. For callers that must not serve a stale row.
+    public Task getStoredTask(int taskId) throws SQLException {
+        Task task = taskDao.getTaskById(taskId);
+        if (task != null) {
+            cache.put(task);
+        } else {
+            cache.remove(taskId);
+        }
+        return task;
+    }
+
+    // Filtered views come from the cache's indexes once it holds the whole table, otherwise
+    // from a filtered query (never by loading every task)
+    public List<Task> getTasksByCategory(String category) throws SQLException {
+        List<Task> tasks = isCacheComplete() ? cache.getByCategory(category) : null;
+        if (tasks == null) {
+            tasks = taskDao.findTasks(new TaskQuery().category(category));
+            tasks.forEach(cache::put);
+        }
+        return tasks;
+    }
+
+    public List<Task> getTasksByCompleted(boolean completed) throws SQLException {
+        List<Task> tasks = isCacheComplete() ? cache.getByCompleted(completed) : null;
+        if (tasks == null) {
+            tasks = taskDao.findTasks(new TaskQuery().completed(completed));
+            tasks.forEach(cache::put);
+        }
+        return tasks;
+    }
+
+    public List<Task> findTasks(TaskQuery query) throws SQLException {
+        return taskDao.findTasks(query);
+    }
+
+    public TaskQuery.Facets countFacets(TaskQuery query) throws SQLException {
+        return taskDao.countFacets(query);
+    }
+
+    public TaskCache getCache() {
+        return cache;
+    }
+
+    public TaskPage getTasksPage(TaskPage.Cursor after, int limit, TaskPage.Sort sort) throws SQLException {
+        return taskDao.getTasksPage(after, limit, sort);
+    }
+
+    public List<TaskSearch.SearchHit> searchTasks(String query, int limit) throws SQLException {
+        return TaskSearch.search(query, limit);
     }
 
     public void addTask(Task task) throws SQLException {
         taskDao.insertTask(task);
+        cache.put(task);
+    }
+
+    // Returns false (and leaves the cache alone) if no task has the task's ID; throws
+    // TaskConflictException if the task carries a version another writer has moved past
+    public boolean updateTask(Task task) throws SQLException {
+        try {
+            boolean updated = taskDao.updateTask(task);
+            if (updated) {
+                cache.put(task);
+            }
+            return updated;
+        } catch (TaskConflictException e) {
+            cache.put(e.getCurrent());
+            throw e;
+        }
+    }
+
+    // Saves edited, an edit of base (the task as the caller read it). If another writer changed
+    // the row in between, the two edits are merged column by column and the save retried; a
+    // column both sides changed to different values raises TaskConflictException with the
+    // current row. On success edited holds the merged row as stored.
+    public boolean updateTask(Task base, Task edited) throws SQLException {
+        edited.setVersion(base.getVersion());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return updateTask(edited);
+            } catch (TaskConflictException e) {
+                Task current = e.getCurrent();
+                List<String> conflicts = TaskMerge.conflicts(base, edited, current);
+                if (!conflicts.isEmpty() || attempt == MAX_MERGE_ATTEMPTS) {
+                    throw new TaskConflictException(current, conflicts);
+                }
+                TaskMerge.rebase(base, edited, current);
+                base = current;
+            }
+        }
     }
 
-    public void updateTask(Task task) throws SQLException {
-        taskDao.updateTask(task);
+    // Status toggles for many tasks in one transaction; only the completed column is written
+    public BatchResult setTasksCompleted(int[] taskIds, boolean completed) throws SQLException {
+        BatchResult result = taskDao.setTasksCompleted(taskIds, completed);
+        int[] versions = result.getVersions();
+        for (int i = 0; i < taskIds.length; i++) {
+            Task cached = cache.get(taskIds[i]);
+            if (cached == null) {
+                continue;
+            }
+            // Patch the cached copy only if it was the version just replaced; otherwise it is stale
+            if (result.isAffected(i) && versions[i] > 0 && cached.getVersion() == versions[i] - 1) {
+                cached.setCompleted(completed);
+                cached.setVersion(versions[i]);
+                cached.clearDirty();
+                cache.put(cached);
+            } else {
+                cache.remove(taskIds[i]);
+            }
+        }
+        return result;
+    }
+
+    public long getChangeCount() throws SQLException {
+        return taskDao.getChangeCount();
     }
 
     public void deleteTask(int taskId) throws SQLException {
         taskDao.deleteTask(taskId);
+        cache.remove(taskId);
+    }
+
+    public int deleteInvalidTasks() throws SQLException {
+        int deleted = taskDao.deleteInvalidTasks();
+        if (deleted > 0) {
+            cache.clear();
+        }
+        return deleted;
+    }
+
+    // Bulk import (see TaskImporter). The importer writes through its own batched path,
+    // so the cache is dropped afterwards rather than kept in step row by row.
+    public TaskImporter.ImportResult importFile(Path source, TaskImporter.ProgressListener listener)
+            throws IOException, SQLException, InterruptedException {
+        try {
+            return new TaskImporter().importFile(source, listener);
+        } finally {
+            cache.clear();
+        }
+    }
+
+    public BatchResult addTasks(Collection<Task> tasks) throws SQLException {
+        return addTasks(tasks, TaskDao.DEFAULT_BATCH_SIZE);
+    }
+
+    public BatchResult addTasks(Collection<Task> tasks, int chunkSize) throws SQLException {
+        BatchResult result = taskDao.insertTasks(tasks, chunkSize);
+        for (Task task : tasks) {
+            cache.put(task);
+        }
+        return result;
+    }
+
+    public BatchResult updateTasks(Collection<Task> tasks) throws SQLException {
+        return updateTasks(tasks, TaskDao.DEFAULT_BATCH_SIZE);
+    }
+
+    public BatchResult updateTasks(Collection<Task> tasks, int chunkSize) throws SQLException {
+        BatchResult result = taskDao.updateTasks(tasks, chunkSize);
+        int index = 0;
+        for (Task task : tasks) {
+            if (result.isAffected(index++)) {
+                cache.put(task);
+            }
+        }
+        return result;
+    }
+
+    public BatchResult deleteTasks(int[] taskIds) throws SQLException {
+        return deleteTasks(taskIds, TaskDao.DEFAULT_BATCH_SIZE);
+    }
+
+    public BatchResult deleteTasks(int[] taskIds, int chunkSize) throws SQLException {
+        BatchResult result = taskDao.deleteTasks(taskIds, chunkSize);
+        for (int taskId : taskIds) {
+            cache.remove(taskId);
+        }
+        return result;
+    }
+
+    // Async variants: the work runs on DatabaseExecutor's virtual threads. Callers on the
+    // JavaFX thread should hop back with Platform.runLater before touching the UI.
+
+    public CompletableFuture<List<Task>> getAllTasksAsync() {
+        return DatabaseExecutor.supply(this::getAllTasks);
+    }
+
+    public CompletableFuture<Task> getTaskByIdAsync(int taskId) {
+        return DatabaseExecutor.supply(() -> getTaskById(taskId));
+    }
+
+    public CompletableFuture<TaskPage> getTasksPageAsync(TaskPage.Cursor after, int limit, TaskPage.Sort sort) {
+        return DatabaseExecutor.supply(() -> getTasksPage(after, limit, sort));
+    }
+
+    public CompletableFuture<List<TaskSearch.SearchHit>> searchTasksAsync(String query, int limit) {
+        return DatabaseExecutor.supply(() -> searchTasks(query, limit));
+    }
+
+    public CompletableFuture<List<Task>> findTasksAsync(TaskQuery query) {
+        return DatabaseExecutor.supply(() -> findTasks(query));
+    }
+
+    public CompletableFuture<TaskQuery.Facets> countFacetsAsync(TaskQuery query) {
+        return DatabaseExecutor.supply(() -> countFacets(query));
+    }
+
+    public CompletableFuture<Void> addTaskAsync(Task task) {
+        return DatabaseExecutor.run(() -> addTask(task));
+    }
+
+    public CompletableFuture<Boolean> updateTaskAsync(Task task) {
+        return DatabaseExecutor.supply(() -> updateTask(task));
+    }
+
+    public CompletableFuture<Boolean> updateTaskAsync(Task base, Task edited) {
+        return DatabaseExecutor.supply(() -> updateTask(base, edited));
+    }
+
+    public CompletableFuture<BatchResult> setTasksCompletedAsync(int[] taskIds, boolean completed) {
+        return DatabaseExecutor.supply(() -> setTasksCompleted(taskIds, completed));
+    }
+
+    public CompletableFuture<Void> deleteTaskAsync(int taskId) {
+        return DatabaseExecutor.run(() -> deleteTask(taskId));
+    }
+
+    public CompletableFuture<BatchResult> addTasksAsync(Collection<Task> tasks) {
+        return DatabaseExecutor.supply(() -> addTasks(tasks));
+    }
+
+    public CompletableFuture<BatchResult> updateTasksAsync(Collection<Task> tasks) {
+        return DatabaseExecutor.supply(() -> updateTasks(tasks));
+    }
+
+    public CompletableFuture<BatchResult> deleteTasksAsync(int[] taskIds) {
+        return DatabaseExecutor.supply(() -> deleteTasks(taskIds));
     }
 }
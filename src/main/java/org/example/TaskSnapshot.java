@@ -0,0 +1,291 @@
+package org.example;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Compact binary copy of the task list as last shown, written on shutdown so the
+ * next launch can show it without a query. The file is memory-mapped and decoded
+ * in one pass; categories are stored once in a dictionary and timestamps as epoch
+ * millis, so a row is a few fixed fields plus its two texts.
+ * <p>
+ * The header records the database's change counter (schema migration 9) at the
+ * time the list matched the table. A snapshot is only a starting point: the
+ * caller compares that count with the database's and reloads when they differ.
+ * A file with the wrong magic, format, schema version, database URL or checksum
+ * is ignored.
+ * <pre>
+ *   "TSNP" format:int schema:int url:utf changeCount:long rowCount:int hasMore:byte cursor
+ *   categoryCount:int category:utf...
+ *   row... (id:int version:int flags:byte category:int [createdAt:long] [deadline:long] name:str description:str)
+ *   crc32:int (over everything before it)
+ * </pre>
+ */
+public final class TaskSnapshot {
+    private static final Logger logger = Logger.getLogger(TaskSnapshot.class.getName());
+
+    // -Dtasks.snapshot.path moves the file; -Dtasks.snapshot.enabled=false turns snapshots off
+    private static final String PATH = System.getProperty("tasks.snapshot.path", "tasks.snapshot");
+    private static final boolean ENABLED = !"false".equals(System.getProperty("tasks.snapshot.enabled"));
+
+    private static final int MAGIC = 0x54534E50; // "TSNP"
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int COMPLETED = 1;
+    private static final int HAS_CREATED_AT = 2;
+    private static final int HAS_DEADLINE = 4;
+
+    private static final byte CURSOR_NONE = 0;
+    private static final byte CURSOR_MILLIS = 1;
+    private static final byte CURSOR_NULL_CREATED_AT = 2;
+
+    private final long changeCount;
+    private final List<Task> tasks;
+    private final TaskPage.Cursor nextCursor;
+    private final boolean hasMore;
+
+    private TaskSnapshot(long changeCount, List<Task> tasks, TaskPage.Cursor nextCursor, boolean hasMore) {
+        this.changeCount = changeCount;
+        this.tasks = tasks;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static Path defaultPath() {
+        return Path.of(PATH);
+    }
+
+    // Value of the database's change counter when the list matched the table
+    public long getChangeCount() {
+        return changeCount;
+    }
+
+    // The listed tasks, in list order; modifiable, and owned by the caller
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    // Where paging continues after the listed tasks (see TaskController.loadNextPage)
+    public TaskPage.Cursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    // Method to write a snapshot: to a temporary file first, then moved over the old one,
+    // so a crash mid-write leaves the previous snapshot (or none) rather than a torn file
+    public static void write(Path file, long changeCount, List<Task> tasks, TaskPage.Cursor nextCursor, boolean hasMore)
+            throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            CRC32 crc = new CRC32();
+            try (CheckedOutputStream checked = new CheckedOutputStream(Files.newOutputStream(temp), crc);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked, 256 * 1024))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(SchemaMigrator.latestVersion());
+                out.writeUTF(DatabaseHelper.getUrl());
+                out.writeLong(changeCount);
+                out.writeInt(tasks.size());
+                out.writeBoolean(hasMore);
+                writeCursor(out, nextCursor);
+
+                Map<String, Integer> categories = new HashMap<>();
+                List<String> dictionary = new ArrayList<>();
+                for (Task task : tasks) {
+                    if (task.getCategory() != null && categories.putIfAbsent(task.getCategory(), dictionary.size()) == null) {
+                        dictionary.add(task.getCategory());
+                    }
+                }
+                out.writeInt(dictionary.size());
+                for (String category : dictionary) {
+                    writeString(out, category);
+                }
+
+                for (Task task : tasks) {
+                    int flags = (task.isCompleted() ? COMPLETED : 0)
+                            | (task.getCreatedAt() != null ? HAS_CREATED_AT : 0)
+                            | (task.getDeadline() != null ? HAS_DEADLINE : 0);
+                    out.writeInt(task.getId());
+                    out.writeInt(task.getVersion());
+                    out.writeByte(flags);
+                    out.writeInt(task.getCategory() != null ? categories.get(task.getCategory()) : -1);
+                    if (task.getCreatedAt() != null) {
+                        out.writeLong(TimestampCodec.toEpochMillis(task.getCreatedAt()));
+                    }
+                    if (task.getDeadline() != null) {
+                        out.writeLong(TimestampCodec.toEpochMillis(task.getDeadline()));
+                    }
+                    writeString(out, task.getTaskName());
+                    writeString(out, task.getDescription());
+                }
+                out.flush();
+                // The checksum covers everything written so far; it is not part of itself
+                out.writeInt((int) crc.getValue());
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Wrote snapshot of " + tasks.size() + " task(s) at change " + changeCount + " to " + file);
+        }
+    }
+
+    // Method to read a snapshot; returns null if there is none or it cannot be used
+    public static TaskSnapshot read(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 8 || size > Integer.MAX_VALUE) {
+                logger.warning("Ignoring snapshot " + file + ": unexpected size " + size);
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(0, (int) size - 4));
+            if ((int) crc.getValue() != buffer.getInt((int) size - 4)) {
+                logger.warning("Ignoring snapshot " + file + ": checksum mismatch");
+                return null;
+            }
+            buffer.limit((int) size - 4);
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                logger.warning("Ignoring snapshot " + file + ": not a task snapshot of this format");
+                return null;
+            }
+            int schemaVersion = buffer.getInt();
+            String url = readUtf(buffer);
+            if (schemaVersion != SchemaMigrator.latestVersion() || !url.equals(DatabaseHelper.getUrl())) {
+                logger.info("Ignoring snapshot " + file + ": written for schema " + schemaVersion + " of " + url);
+                return null;
+            }
+            long changeCount = buffer.getLong();
+            int rowCount = buffer.getInt();
+            boolean hasMore = buffer.get() != 0;
+            TaskPage.Cursor cursor = readCursor(buffer);
+
+            String[] categories = new String[buffer.getInt()];
+            byte[] scratch = new byte[256];
+            for (int i = 0; i < categories.length; i++) {
+                categories[i] = readString(buffer, scratch);
+            }
+
+            List<Task> tasks = new ArrayList<>(rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                int id = buffer.getInt();
+                int version = buffer.getInt();
+                int flags = buffer.get();
+                int category = buffer.getInt();
+                LocalDateTime createdAt = (flags & HAS_CREATED_AT) != 0 ? TimestampCodec.fromEpochMillis(buffer.getLong()) : null;
+                LocalDateTime deadline = (flags & HAS_DEADLINE) != 0 ? TimestampCodec.fromEpochMillis(buffer.getLong()) : null;
+                String name = readString(buffer, scratch);
+                String description = readString(buffer, scratch);
+                Task task = new Task(id, name, category >= 0 ? categories[category] : null, description,
+                        (flags & COMPLETED) != 0, createdAt, deadline);
+                task.setVersion(version);
+                tasks.add(task);
+            }
+            if (buffer.hasRemaining()) {
+                logger.warning("Ignoring snapshot " + file + ": trailing data");
+                return null;
+            }
+            return new TaskSnapshot(changeCount, tasks, cursor, hasMore);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            logger.log(Level.WARNING, "Ignoring unreadable snapshot " + file + ": " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    // Method to remove a snapshot that no longer matches the database
+    public static void delete(Path file) throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    // Cursors hold created_at exactly as stored: epoch millis, or null for rows without one
+    private static void writeCursor(DataOutputStream out, TaskPage.Cursor cursor) throws IOException {
+        if (cursor == null) {
+            out.writeByte(CURSOR_NONE);
+            return;
+        }
+        if (cursor.getCreatedAt() instanceof Number millis) {
+            out.writeByte(CURSOR_MILLIS);
+            out.writeLong(millis.longValue());
+        } else if (cursor.getCreatedAt() == null) {
+            out.writeByte(CURSOR_NULL_CREATED_AT);
+        } else {
+            throw new IOException("Unexpected cursor value: " + cursor);
+        }
+        out.writeInt(cursor.getId());
+    }
+
+    private static TaskPage.Cursor readCursor(MappedByteBuffer buffer) {
+        byte tag = buffer.get();
+        return switch (tag) {
+            case CURSOR_NONE -> null;
+            case CURSOR_MILLIS -> {
+                long millis = buffer.getLong();
+                yield new TaskPage.Cursor(millis, buffer.getInt());
+            }
+            case CURSOR_NULL_CREATED_AT -> new TaskPage.Cursor(null, buffer.getInt());
+            default -> throw new IllegalArgumentException("unknown cursor tag " + tag);
+        };
+    }
+
+    // Texts are a byte length (-1 for null) and UTF-8 bytes; unlike writeUTF, not limited to 64 KiB
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(MappedByteBuffer buffer, byte[] scratch) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = length <= scratch.length ? scratch : new byte[length];
+        buffer.get(bytes, 0, length);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    // Counterpart of DataOutputStream.writeUTF for the header (short URLs only)
+    private static String readUtf(MappedByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,131 @@
+package org.example;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * The one mapping between {@link LocalDateTime} and the database. Timestamps
+ * are stored as INTEGER milliseconds since the epoch (schema migration 5
+ * converted the older text values), with local times interpreted in the system
+ * time zone.
+ * <p>
+ * Decoding allocates only the resulting LocalDateTime: no Timestamp, Instant or
+ * ZonedDateTime. The zone offset comes from a small cache of the intervals
+ * between the zone's transitions, so the rules are only consulted on a miss.
+ */
+public final class TimestampCodec {
+    private static final ZoneRules RULES = ZoneId.systemDefault().getRules();
+
+    // Set for zones without transitions (UTC, fixed offsets), which never need the cache
+    private static final ZoneOffset FIXED_OFFSET = RULES.isFixedOffset() ? RULES.getOffset(Instant.EPOCH) : null;
+
+    // Most recently used offset intervals, newest first; replaced (never mutated) on a miss
+    private static final int MAX_WINDOWS = 8;
+    private static volatile OffsetWindow[] windows = new OffsetWindow[0];
+
+    // Longer than any backwards clock change (overlap) a zone has had
+    private static final long AMBIGUITY_MARGIN_MILLIS = 24L * 60 * 60 * 1000;
+
+    private TimestampCodec() {
+    }
+
+    // Method to read a timestamp column; SQL NULL becomes null
+    public static LocalDateTime read(ResultSet rs, String column) throws SQLException {
+        long millis = rs.getLong(column);
+        return rs.wasNull() ? null : fromEpochMillis(millis);
+    }
+
+    public static LocalDateTime read(ResultSet rs, int column) throws SQLException {
+        long millis = rs.getLong(column);
+        return rs.wasNull() ? null : fromEpochMillis(millis);
+    }
+
+    // Method to bind a timestamp parameter; null becomes SQL NULL
+    public static void write(PreparedStatement pstmt, int index, LocalDateTime value) throws SQLException {
+        if (value == null) {
+            pstmt.setNull(index, Types.INTEGER);
+        } else {
+            pstmt.setLong(index, toEpochMillis(value));
+        }
+    }
+
+    public static LocalDateTime fromEpochMillis(long millis) {
+        long epochSecond = Math.floorDiv(millis, 1000L);
+        int nanos = (int) Math.floorMod(millis, 1000L) * 1_000_000;
+        return LocalDateTime.ofEpochSecond(epochSecond, nanos, offsetAt(millis));
+    }
+
+    public static long toEpochMillis(LocalDateTime value) {
+        long localSeconds = value.toEpochSecond(ZoneOffset.UTC);
+        long localMillis = localSeconds * 1000L + value.getNano() / 1_000_000;
+        if (FIXED_OFFSET != null) {
+            return localMillis - FIXED_OFFSET.getTotalSeconds() * 1000L;
+        }
+        for (OffsetWindow window : windows) {
+            long millis = localMillis - window.offsetSeconds * 1000L;
+            // Just after a transition the local time may be ambiguous (clocks set back);
+            // leave that to the rules, which pick the earlier offset like ZonedDateTime does
+            if (millis >= window.fromMillis + AMBIGUITY_MARGIN_MILLIS && millis < window.untilMillis) {
+                return millis;
+            }
+        }
+        // Not cached, or in a DST gap/overlap: let the rules pick the offset, then cache its window
+        ZoneOffset offset = RULES.getOffset(value);
+        long millis = localMillis - offset.getTotalSeconds() * 1000L;
+        offsetAt(millis);
+        return millis;
+    }
+
+    private static ZoneOffset offsetAt(long millis) {
+        if (FIXED_OFFSET != null) {
+            return FIXED_OFFSET;
+        }
+        OffsetWindow[] cached = windows;
+        for (OffsetWindow window : cached) {
+            if (millis >= window.fromMillis && millis < window.untilMillis) {
+                return window.offset;
+            }
+        }
+        OffsetWindow window = OffsetWindow.containing(millis);
+        OffsetWindow[] updated = new OffsetWindow[Math.min(cached.length + 1, MAX_WINDOWS)];
+        updated[0] = window;
+        System.arraycopy(cached, 0, updated, 1, updated.length - 1);
+        windows = updated;
+        return window.offset;
+    }
+
+    // An interval [fromMillis, untilMillis) during which the zone's offset does not change
+    private static final class OffsetWindow {
+        private final long fromMillis;
+        private final long untilMillis;
+        private final ZoneOffset offset;
+        private final int offsetSeconds;
+
+        private OffsetWindow(long fromMillis, long untilMillis, ZoneOffset offset) {
+            this.fromMillis = fromMillis;
+            this.untilMillis = untilMillis;
+            this.offset = offset;
+            this.offsetSeconds = offset.getTotalSeconds();
+        }
+
+        private static OffsetWindow containing(long millis) {
+            Instant instant = Instant.ofEpochMilli(millis);
+            ZoneOffset offset = RULES.getOffset(instant);
+            ZoneOffsetTransition previous = RULES.previousTransition(instant);
+            ZoneOffsetTransition next = RULES.nextTransition(instant);
+            // If millis is exactly on a transition, previousTransition() is the one before it
+            long from = previous != null && previous.getOffsetAfter().equals(offset)
+                    ? previous.toEpochSecond() * 1000L : millis;
+            long until = next != null ? next.toEpochSecond() * 1000L : Long.MAX_VALUE;
+            return new OffsetWindow(from, until, offset);
+        }
+    }
+}
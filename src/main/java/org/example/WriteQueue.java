@@ -0,0 +1,334 @@
+package org.example;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Single-writer queue. Write operations from any thread are executed one after
+ * another on the pool's writer connection by one dedicated thread. Operations
+ * that arrive while a commit is in progress are coalesced into the next
+ * transaction (group commit), so concurrent mutations share one fsync. Each
+ * operation runs inside its own savepoint: a failing operation is rolled back
+ * alone and the rest of its group still commits. Callers are only released once
+ * their transaction has committed.
+ */
+public class WriteQueue {
+    private static final Logger logger = Logger.getLogger(WriteQueue.class.getName());
+
+    private final ConnectionPool pool;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingWrite<?>> queue = new LinkedBlockingQueue<>();
+
+    // Set on the writer thread while it runs queued operations, so nested writes run inline
+    private final ThreadLocal<Connection> currentTransaction = new ThreadLocal<>();
+    private final ThreadLocal<PendingWrite<?>> currentWrite = new ThreadLocal<>();
+
+    private Thread worker;
+    private volatile boolean closed;
+
+    private final LongAdder operationCount = new LongAdder();
+    private final LongAdder commitCount = new LongAdder();
+    private final LongAdder failedOperationCount = new LongAdder();
+
+    public WriteQueue(ConnectionPool pool, int maxBatchSize) {
+        this.pool = pool;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    // Method to run a write and wait until it has been committed
+    public <T> T execute(Operation<T> operation) throws SQLException {
+        Connection inProgress = currentTransaction.get();
+        if (inProgress != null) {
+            return operation.execute(inProgress);
+        }
+
+        PendingWrite<T> pending = enqueue(operation);
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return pending.future.get();
+                } catch (InterruptedException e) {
+                    // Give up only if the write has not started; otherwise its outcome must be reported
+                    if (pending.cancel()) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a write to commit.", e);
+                    }
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new SQLException("Write failed: " + cause.getMessage(), cause);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Method to run an action once the current operation's transaction has committed (e.g. to
+    // publish what it changed). Dropped if the operation fails; run at once outside a queued write.
+    public void afterCommit(Runnable action) {
+        PendingWrite<?> pending = currentWrite.get();
+        if (pending == null) {
+            action.run();
+        } else {
+            pending.afterCommit.add(action);
+        }
+    }
+
+    // Method to queue a write; the future completes after the transaction containing it commits.
+    // Cancelling the future skips the write if the writer has not started it yet.
+    public <T> CompletableFuture<T> submit(Operation<T> operation) {
+        return enqueue(operation).future;
+    }
+
+    private <T> PendingWrite<T> enqueue(Operation<T> operation) {
+        PendingWrite<T> pending = new PendingWrite<>(operation);
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Write queue has been closed.");
+            }
+            queue.add(pending);
+            if (worker == null) {
+                startWorker();
+            }
+        }
+        return pending;
+    }
+
+    // Method to stop accepting writes, finish the queued ones and stop the writer thread
+    public void close() {
+        Thread running;
+        synchronized (this) {
+            closed = true;
+            running = worker;
+        }
+        if (running != null) {
+            try {
+                running.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public long getOperationCount() {
+        return operationCount.sum();
+    }
+
+    public long getCommitCount() {
+        return commitCount.sum();
+    }
+
+    public long getFailedOperationCount() {
+        return failedOperationCount.sum();
+    }
+
+    // Average number of operations that shared one commit
+    public double getAverageGroupSize() {
+        long commits = commitCount.sum();
+        return commits == 0 ? 0.0 : (double) operationCount.sum() / commits;
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WriteQueue[operations=%d, commits=%d, avgGroup=%.2f, failed=%d, queued=%d]",
+                getOperationCount(), getCommitCount(), getAverageGroupSize(), getFailedOperationCount(), getQueuedCount());
+    }
+
+    // Called with this queue's lock held
+    private void startWorker() {
+        worker = new Thread(this::runLoop, "tasks-db-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void runLoop() {
+        try {
+            drainQueue();
+        } finally {
+            // Normally only reached once closed and drained; should the thread die anyway, a
+            // successor takes over the queued writes instead of leaving their callers waiting
+            synchronized (this) {
+                worker = null;
+                if (!queue.isEmpty()) {
+                    startWorker();
+                }
+            }
+        }
+    }
+
+    private void drainQueue() {
+        List<PendingWrite<?>> group = new ArrayList<>();
+        while (!closed || !queue.isEmpty()) {
+            PendingWrite<?> first;
+            try {
+                first = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (first == null) {
+                continue;
+            }
+            group.clear();
+            group.add(first);
+            queue.drainTo(group, maxBatchSize - 1);
+            commitGroup(group);
+        }
+    }
+
+    private void commitGroup(List<PendingWrite<?>> group) {
+        boolean committed = false;
+        try (Connection connection = pool.getWriteConnection()) {
+            connection.setAutoCommit(false);
+            currentTransaction.set(connection);
+            // Auto-commit is only switched back on once the transaction has ended: in sqlite-jdbc
+            // setAutoCommit(true) commits, which would keep a failed group's earlier operations
+            boolean ended = false;
+            try {
+                for (PendingWrite<?> pending : group) {
+                    pending.runIn(connection);
+                }
+                TaskMetrics.Sample sample = TaskMetrics.DB_COMMIT.start();
+                try {
+                    connection.commit();
+                } catch (SQLException e) {
+                    sample.fail();
+                    throw e;
+                }
+                sample.stop(group.size());
+                committed = true;
+                ended = true;
+            } catch (Throwable e) {
+                try {
+                    connection.rollback();
+                    ended = true;
+                } catch (SQLException rollbackError) {
+                    e.addSuppressed(rollbackError);
+                }
+                throw e;
+            } finally {
+                currentTransaction.remove();
+                if (ended) {
+                    connection.setAutoCommit(true);
+                }
+            }
+        } catch (Throwable e) {
+            if (committed) {
+                // Only restoring auto-commit or returning the connection failed: the group is durable
+                logger.log(Level.WARNING, "Error releasing the write connection after a commit: " + e.getMessage(), e);
+            } else {
+                // The group was rolled back (or, if even that failed, auto-commit was left off so
+                // nothing commits it later): none of its operations took effect
+                logger.log(Level.SEVERE, "Error committing " + group.size() + " queued write(s): " + e.getMessage(), e);
+                for (PendingWrite<?> pending : group) {
+                    pending.future.completeExceptionally(e);
+                }
+                return;
+            }
+        }
+        commitCount.increment();
+        operationCount.add(group.size());
+        for (PendingWrite<?> pending : group) {
+            pending.publish();
+        }
+    }
+
+    // A unit of work against the writer connection. It runs inside a transaction owned by the
+    // queue, so it must not commit, roll back or change auto-commit itself.
+    @FunctionalInterface
+    public interface Operation<T> {
+        T execute(Connection connection) throws SQLException;
+    }
+
+    private static final int QUEUED = 0, STARTED = 1, CANCELLED = 2;
+
+    private final class PendingWrite<T> {
+        private final Operation<T> operation;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+        private T result;
+        private boolean succeeded;
+        private final List<Runnable> afterCommit = new ArrayList<>(1);
+
+        private PendingWrite(Operation<T> operation) {
+            this.operation = operation;
+        }
+
+        // Claims the write for the writer thread; false if it was cancelled while queued
+        private boolean start() {
+            return state.compareAndSet(QUEUED, STARTED);
+        }
+
+        // Withdraws the write if the writer has not started it; false once it is running or done
+        private boolean cancel() {
+            if (state.compareAndSet(QUEUED, CANCELLED)) {
+                future.cancel(false);
+                return true;
+            }
+            return false;
+        }
+
+        private void runIn(Connection connection) throws SQLException {
+            if (future.isCancelled() || !start()) {
+                return;
+            }
+            Savepoint savepoint = connection.setSavepoint();
+            currentWrite.set(this);
+            try {
+                result = operation.execute(connection);
+                succeeded = true;
+            } catch (Throwable e) {
+                // Errors too: whatever an operation throws must reach its caller, not the writer thread
+                connection.rollback(savepoint);
+                afterCommit.clear();
+                failedOperationCount.increment();
+                future.completeExceptionally(e);
+            } finally {
+                currentWrite.remove();
+                connection.releaseSavepoint(savepoint);
+            }
+        }
+
+        // Completes the caller's future once the transaction is durable
+        private void publish() {
+            if (succeeded) {
+                for (Runnable action : afterCommit) {
+                    try {
+                        action.run();
+                    } catch (Throwable e) {
+                        logger.log(Level.WARNING, "After-commit action failed: " + e.getMessage(), e);
+                    }
+                }
+                future.complete(result);
+            }
+        }
+    }
+}